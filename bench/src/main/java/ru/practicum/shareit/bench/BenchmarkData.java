@@ -0,0 +1,120 @@
+package ru.practicum.shareit.bench;
+
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Данные для бенчмарков: правдоподобные названия и описания вещей с фиксированным seed,
+ * чтобы запуски разных версий сравнивались на одинаковых наборах.
+ */
+final class BenchmarkData {
+    static final long SEED = 42;
+    static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 1, 12, 0);
+
+    private static final List<String> NAMES = List.of(
+            "Дрель", "Перфоратор", "Шуруповерт", "Лобзик", "Болгарка", "Лестница", "Палатка", "Велосипед",
+            "Самокат", "Пила", "Молоток", "Отвертка", "Сноуборд", "Байдарка", "Проектор", "Фотоаппарат");
+    private static final List<String> ADJECTIVES = List.of(
+            "аккумуляторная", "ударная", "складная", "профессиональная", "компактная", "туристическая",
+            "электрическая", "легкая", "надежная", "мощная");
+
+    private BenchmarkData() {
+    }
+
+    static String itemName(Random random) {
+        return NAMES.get(random.nextInt(NAMES.size())) + " " + ADJECTIVES.get(random.nextInt(ADJECTIVES.size()));
+    }
+
+    static String itemDescription(Random random) {
+        return "Почти новая, " + ADJECTIVES.get(random.nextInt(ADJECTIVES.size())) + ", в комплекте "
+                + NAMES.get(random.nextInt(NAMES.size())).toLowerCase() + " и кейс";
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("Пользователь " + id)
+                .email("user" + id + "@shareit.ru")
+                .build();
+    }
+
+    static Item item(long id, User owner, Random random) {
+        return Item.builder()
+                .id(id)
+                .name(itemName(random))
+                .description(itemDescription(random))
+                .available(random.nextInt(10) != 0)
+                .owner(owner)
+                .build();
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        LocalDateTime start = NOW.plusDays(id % 30 - 15);
+        return Booking.builder()
+                .id(id)
+                .start(start)
+                .end(start.plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.values()[(int) (id % BookingStatus.values().length)])
+                .build();
+    }
+
+    static List<BookingDto> bookingDtos(int size) {
+        List<BookingDto> bookings = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            LocalDateTime start = NOW.plusDays(id % 30 - 15);
+            bookings.add(BookingDto.builder()
+                    .id(id)
+                    .start(start)
+                    .end(start.plusDays(2))
+                    .status(BookingStatus.APPROVED)
+                    .booker(new BookingDto.BookerDto(id % 100, "Пользователь " + id % 100))
+                    .item(new BookingDto.ItemDto(id % 500, "Дрель аккумуляторная"))
+                    .build());
+        }
+        return bookings;
+    }
+
+    static List<ItemWithBookingsDto> itemWithBookingsDtos(int size) {
+        Random random = new Random(SEED);
+        List<ItemWithBookingsDto> items = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            items.add(ItemWithBookingsDto.builder()
+                    .id(id)
+                    .name(itemName(random))
+                    .description(itemDescription(random))
+                    .available(true)
+                    .lastBooking(BookingInfoDto.builder()
+                            .id(id * 2)
+                            .bookerId(id % 100)
+                            .start(NOW.minusDays(3))
+                            .end(NOW.minusDays(1))
+                            .build())
+                    .nextBooking(BookingInfoDto.builder()
+                            .id(id * 2 + 1)
+                            .bookerId(id % 100 + 1)
+                            .start(NOW.plusDays(1))
+                            .end(NOW.plusDays(3))
+                            .build())
+                    .comments(List.of(
+                            CommentDto.builder().id(id * 3).text("Отличная вещь, всё работает")
+                                    .authorName("Пользователь " + id % 100).created(NOW.minusDays(1)).build(),
+                            CommentDto.builder().id(id * 3 + 1).text("Вернул вовремя, рекомендую владельца")
+                                    .authorName("Пользователь " + (id + 1) % 100).created(NOW).build()))
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.bench;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.ShareItServer;
+import ru.practicum.shareit.server.batch.Batches;
+import ru.practicum.shareit.server.booking.BookingMapper;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingState;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.item.CommentRepository;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemForOwnerDto;
+import ru.practicum.shareit.server.item.model.Comment;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.NgramItemSearchEngine;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Сервисные методы на встроенной H2. Каждый вызов выполняется в транзакции только для чтения,
+ * как и методы чтения сервисов в приложении.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ServiceBenchmark {
+    private static final int OWNERS = 200;
+    private static final int BOOKERS = 2_000;
+    private static final int ITEMS_PER_OWNER = 50;
+    private static final int BOOKINGS_PER_ITEM = 5;
+    private static final int COMMENTS_PER_ITEM = 2;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"sql"})
+    private String searchEngine;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private EntityManager entityManager;
+    private BookingMapper bookingMapper;
+    private BookingService bookingService;
+    private ItemService itemService;
+    private Long ownerId;
+    private Long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=WARN",
+                "--shareit.search.engine=" + searchEngine);
+
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        bookingService = context.getBean(BookingService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        bookingMapper = context.getBean(BookingMapper.class);
+        itemService = context.getBean(ItemService.class);
+
+        seed();
+        context.getBeanProvider(NgramItemSearchEngine.class).ifAvailable(NgramItemSearchEngine::rebuild);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerBookings() {
+        return readOnly.execute(status ->
+                bookingService.getOwnerBookings(ownerId, BookingState.ALL, 0, PAGE_SIZE, null));
+    }
+
+    /**
+     * Прежний способ получения той же страницы: сущности с JOIN FETCH и преобразование в DTO.
+     * Сравнивается с getOwnerBookings по gc.alloc.rate.norm (-prof gc).
+     */
+    @Benchmark
+    public List<BookingDto> getOwnerBookingsHydrated() {
+        return readOnly.execute(status -> entityManager.createQuery(
+                        "SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item " +
+                                "WHERE b.item.owner.id = :ownerId ORDER BY b.start DESC, b.id DESC", Booking.class)
+                .setParameter("ownerId", ownerId)
+                .setMaxResults(PAGE_SIZE)
+                .getResultStream()
+                .map(bookingMapper::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerBookingsPast() {
+        return readOnly.execute(status ->
+                bookingService.getOwnerBookings(ownerId, BookingState.PAST, 0, PAGE_SIZE, null));
+    }
+
+    @Benchmark
+    public List<ItemForOwnerDto> getItemsByOwner() {
+        return readOnly.execute(status -> itemService.getItemsByOwner(ownerId));
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return readOnly.execute(status -> itemService.searchItems("дрель", bookerId, 0, PAGE_SIZE));
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                context.getBean(PlatformTransactionManager.class));
+        Random random = new Random(BenchmarkData.SEED);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < OWNERS + BOOKERS; i++) {
+            users.add(User.builder()
+                    .name("Пользователь " + i)
+                    .email("user" + i + "@shareit.ru")
+                    .build());
+        }
+        saveInChunks(transactionTemplate, users, userRepository::saveAll);
+        List<User> owners = users.subList(0, OWNERS);
+        List<User> bookers = users.subList(OWNERS, users.size());
+
+        List<Item> items = new ArrayList<>();
+        for (User owner : owners) {
+            for (int i = 0; i < ITEMS_PER_OWNER; i++) {
+                items.add(Item.builder()
+                        .name(BenchmarkData.itemName(random))
+                        .description(BenchmarkData.itemDescription(random))
+                        .available(random.nextInt(10) != 0)
+                        .owner(owner)
+                        .build());
+            }
+        }
+        saveInChunks(transactionTemplate, items, itemRepository::saveAll);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (Item item : items) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                // Бронирования вещи идут друг за другом, часть в прошлом, часть в будущем
+                bookings.add(Booking.builder()
+                        .start(BenchmarkData.NOW.plusDays(i * 4L - 10))
+                        .end(BenchmarkData.NOW.plusDays(i * 4L - 8))
+                        .item(item)
+                        .booker(bookers.get(random.nextInt(bookers.size())))
+                        .status(random.nextInt(5) == 0 ? BookingStatus.WAITING : BookingStatus.APPROVED)
+                        .build());
+            }
+            for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+                comments.add(Comment.builder()
+                        .text("Отзыв " + i + ": " + BenchmarkData.itemDescription(random))
+                        .item(item)
+                        .author(bookers.get(random.nextInt(bookers.size())))
+                        .created(BenchmarkData.NOW.minusDays(i))
+                        .build());
+            }
+        }
+        saveInChunks(transactionTemplate, bookings, bookingRepository::saveAll);
+        saveInChunks(transactionTemplate, comments, commentRepository::saveAll);
+
+        ownerId = owners.get(OWNERS / 2).getId();
+        bookerId = bookers.getFirst().getId();
+    }
+
+    private static <T> void saveInChunks(TransactionTemplate transactionTemplate, List<T> entities,
+                                         Consumer<List<T>> saveAll) {
+        for (List<T> chunk : Batches.chunks(entities, Batches.CHUNK_SIZE)) {
+            transactionTemplate.executeWithoutResult(status -> saveAll.accept(chunk));
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package ru.practicum.shareit.gateway.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.booking.dto.BookingDto;
 import ru.practicum.shareit.gateway.booking.dto.BookingState;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
@@ -19,17 +24,26 @@ import ru.practicum.shareit.gateway.booking.dto.BookingState;
 public class BookingController {
     private final BookingClient bookingClient;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 10_000;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(
+    public Mono<ResponseEntity<Object>> createBooking(
             @RequestHeader(USER_ID_HEADER) long userId,
             @RequestBody @Valid BookingDto bookingDto) {
         log.info("Создание бронирования: пользователь={}, вещь={}", userId, bookingDto.getItemId());
         return bookingClient.bookItem(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid BookingDto> bookingDtos) {
+        log.info("Пакетное создание бронирований: пользователь={}, количество={}", userId, bookingDtos.size());
+        return bookingClient.bookItems(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(
+    public Mono<ResponseEntity<Object>> approveBooking(
             @RequestHeader(USER_ID_HEADER) long userId,
             @PathVariable Long bookingId,
             @RequestParam Boolean approved) {
@@ -39,7 +53,7 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(
+    public Mono<ResponseEntity<Object>> getBookingById(
             @RequestHeader(USER_ID_HEADER) long userId,
             @PathVariable Long bookingId) {
         log.info("Получение бронирования {} пользователем {}", bookingId, userId);
@@ -47,26 +61,28 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserBookings(
+    public Mono<ResponseEntity<Object>> getUserBookings(
             @RequestHeader(USER_ID_HEADER) long userId,
             @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-            @Positive @RequestParam(defaultValue = "10") Integer size) {
+            @Positive @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam);
-        log.info("Получение бронирований пользователя {}: состояние={}, from={}, size={}",
-                userId, stateParam, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Получение бронирований пользователя {}: состояние={}, from={}, size={}, cursor={}",
+                userId, stateParam, from, size, cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(
+    public Mono<ResponseEntity<Object>> getOwnerBookings(
             @RequestHeader(USER_ID_HEADER) long ownerId,
             @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-            @Positive @RequestParam(defaultValue = "10") Integer size) {
+            @Positive @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam);
-        log.info("Получение бронирований владельца {}: состояние={}, from={}, size={}",
-                ownerId, stateParam, from, size);
-        return bookingClient.getOwnerBookings(ownerId, state, from, size);
+        log.info("Получение бронирований владельца {}: состояние={}, from={}, size={}, cursor={}",
+                ownerId, stateParam, from, size, cursor);
+        return bookingClient.getOwnerBookings(ownerId, state, from, size, cursor);
     }
 }
\ No newline at end of file
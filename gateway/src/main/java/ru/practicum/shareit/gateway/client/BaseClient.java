@@ -1,94 +1,249 @@
 package ru.practicum.shareit.gateway.client;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.lang.Nullable;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 
+import java.net.http.HttpClient;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class BaseClient {
+    private static final String REQUESTS_METRIC = "shareit.gateway.client.requests";
+    private static final String NONE = "none";
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(),
+            "keep-alive",
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.TE.toLowerCase(),
+            HttpHeaders.TRAILER.toLowerCase(),
+            HttpHeaders.UPGRADE.toLowerCase(),
+            HttpHeaders.PROXY_AUTHENTICATE.toLowerCase(),
+            HttpHeaders.PROXY_AUTHORIZATION.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase()
+    );
+
     protected RestTemplate rest;
+    @Nullable
+    protected WebClient webClient;
+    private final boolean passthrough;
+    private final MeterRegistry meterRegistry;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, false);
+    }
+
+    /**
+     * В режиме passthrough тело ответа сервера не разбирается в объекты,
+     * а передаётся клиенту как массив байт вместе с заголовками ответа.
+     */
+    public BaseClient(RestTemplate rest, boolean passthrough) {
+        this(rest, null, passthrough);
+    }
+
+    /**
+     * Если передан webClient, запросы к серверу выполняются неблокирующим клиентом,
+     * и поток Tomcat освобождается на время ожидания ответа. Иначе используется RestTemplate.
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, boolean passthrough) {
+        this(rest, webClient, passthrough, Metrics.globalRegistry);
+    }
+
+    /**
+     * Каждый запрос к серверу измеряется таймером shareit.gateway.client.requests с тегами клиента,
+     * метода, шаблона пути, состояния бронирования и статуса ответа. Вместе с http.server.requests
+     * шлюза и сервера он показывает, сколько времени приходится на сам переход через шлюз.
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, boolean passthrough,
+                      MeterRegistry meterRegistry) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Фабрика запросов RestTemplate с пулом соединений к серверу. Пул по умолчанию у HttpClient
+     * ограничен пятью соединениями на хост, и при большом числе одновременных запросов
+     * (в том числе на виртуальных потоках) они выстраиваются в очередь за соединением.
+     */
+    protected static ClientHttpRequestFactory pooledRequestFactory(int maxConnections) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .build());
+    }
+
+    /**
+     * Неблокирующий клиент поверх java.net.http.HttpClient с тем же базовым адресом, что и у RestTemplate.
+     */
+    protected static WebClient reactiveClient(WebClient.Builder builder, String baseUrl) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        return builder.clone()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .clientConnector(new JdkClientHttpConnector(httpClient))
+                .build();
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * Условный GET: If-None-Match клиента передаётся серверу, и при совпадении ETag сервер отвечает 304
+     * без тела. Ответ 304 возвращается клиенту вместе с ETag.
+     */
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                               @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return makeAndSendRequest(HttpMethod.GET, path, headers, parameters, null);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, defaultHeaders(userId), parameters, body);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Mono<ResponseEntity<Object>> response = webClient != null
+                ? exchangeReactive(webClient, method, path, headers, parameters, body)
+                : Mono.fromCallable(() -> exchangeBlocking(method, path, headers, parameters, body));
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return response
+                    .doOnSuccess(result -> sample.stop(requestTimer(method, path, parameters,
+                            result != null ? String.valueOf(result.getStatusCode().value()) : NONE)))
+                    .doOnError(e -> sample.stop(requestTimer(method, path, parameters, "IO_ERROR")));
+        });
+    }
+
+    private Timer requestTimer(HttpMethod method, String path, @Nullable Map<String, Object> parameters, String status) {
+        int queryStart = path.indexOf('?');
+        String uri = queryStart >= 0 ? path.substring(0, queryStart) : path;
+        Object state = parameters != null ? parameters.get("state") : null;
+        return Timer.builder(REQUESTS_METRIC)
+                .description("Запросы шлюза к серверу ShareIt")
+                .tag("client", getClass().getSimpleName())
+                .tag("method", method.name())
+                .tag("uri", uri.isEmpty() ? "/" : uri)
+                .tag("state", state != null ? state.toString() : NONE)
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private <T> ResponseEntity<Object> exchangeBlocking(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        Class<?> responseType = passthrough ? byte[].class : Object.class;
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<?> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareErrorResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return toGatewayResponse(shareitServerResponse);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchangeReactive(WebClient client, HttpMethod method, String path, HttpHeaders requestHeaders, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(requestHeaders));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+
+        return spec.exchangeToMono(response -> {
+            HttpStatusCode status = response.statusCode();
+            HttpHeaders headers = response.headers().asHttpHeaders();
+            if (!status.is2xxSuccessful() && !status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(errorBody -> prepareErrorResponse(status, headers, errorBody));
+            }
+            Class<?> responseType = passthrough ? byte[].class : Object.class;
+            return response.bodyToMono(responseType)
+                    .map(responseBody -> toGatewayResponse(new ResponseEntity<>(responseBody, headers, status)))
+                    .switchIfEmpty(Mono.fromSupplier(() -> toGatewayResponse(new ResponseEntity<>(headers, status))));
+        });
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -101,9 +256,23 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private ResponseEntity<Object> toGatewayResponse(ResponseEntity<?> response) {
+        return passthrough ? preparePassthroughResponse(response) : prepareGatewayResponse(response);
+    }
+
+    private ResponseEntity<Object> prepareErrorResponse(HttpStatusCode status, @Nullable HttpHeaders headers, byte[] body) {
+        ResponseEntity.BodyBuilder errorBuilder = ResponseEntity.status(status);
+        if (passthrough && headers != null) {
+            errorBuilder.headers(endToEndHeaders(headers));
+        }
+        return errorBuilder.body(body);
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<?> response) {
+        if (response.getStatusCode().is2xxSuccessful() || response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .body(response.getBody());
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
@@ -114,4 +283,25 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static ResponseEntity<Object> preparePassthroughResponse(ResponseEntity<?> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(endToEndHeaders(response.getHeaders()));
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+
+    private static HttpHeaders endToEndHeaders(HttpHeaders headers) {
+        HttpHeaders result = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                result.addAll(name, values);
+            }
+        });
+        return result;
+    }
 }
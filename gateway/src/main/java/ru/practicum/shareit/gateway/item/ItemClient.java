@@ -1,16 +1,20 @@
 package ru.practicum.shareit.gateway.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.BaseClient;
 import ru.practicum.shareit.gateway.item.dto.CommentDto;
 import ru.practicum.shareit.gateway.item.dto.ItemDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,39 +22,54 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.passthrough}") boolean passthrough,
+                      @Value("${shareit-server.reactive}") boolean reactive,
+                      @Value("${shareit-server.max-connections}") int maxConnections,
+                      RestTemplateBuilder builder,
+                      WebClient.Builder webClientBuilder,
+                      MeterRegistry meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> pooledRequestFactory(maxConnections))
+                        .build(),
+                reactive ? reactiveClient(webClientBuilder, serverUrl + API_PREFIX) : null,
+                passthrough,
+                meterRegistry
         );
     }
 
-    public ResponseEntity<Object> createItem(ItemDto itemDto, Long ownerId) {
+    public Mono<ResponseEntity<Object>> createItem(ItemDto itemDto, Long ownerId) {
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long itemId, ItemDto itemDto, Long ownerId) {
-        return patch("/" + itemId, ownerId, itemDto);
+    public Mono<ResponseEntity<Object>> createItems(List<ItemDto> itemDtos, Long ownerId) {
+        return post("/batch", ownerId, itemDtos);
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> updateItem(Long itemId, ItemDto itemDto, Long ownerId) {
+        return patch("/{itemId}", ownerId, Map.of("itemId", itemId), itemDto);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Long ownerId) {
+    public Mono<ResponseEntity<Object>> getItemById(Long itemId, Long userId, @Nullable String ifNoneMatch) {
+        return get("/{itemId}", userId, Map.of("itemId", itemId), ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemsByOwner(Long ownerId) {
         return get("", ownerId);
     }
 
-    public ResponseEntity<Object> searchItems(String text, Long userId) {
+    public Mono<ResponseEntity<Object>> searchItems(String text, Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(Long itemId, Long authorId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", authorId, commentDto);
+    public Mono<ResponseEntity<Object>> addComment(Long itemId, Long authorId, CommentDto commentDto) {
+        return post("/{itemId}/comment", authorId, Map.of("itemId", itemId), commentDto);
     }
 }
@@ -1,14 +1,22 @@
 package ru.practicum.shareit.gateway.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.item.dto.CommentDto;
 import ru.practicum.shareit.gateway.item.dto.ItemDto;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
@@ -17,16 +25,25 @@ import ru.practicum.shareit.gateway.item.dto.ItemDto;
 public class ItemController {
     private final ItemClient itemClient;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 10_000;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestBody @Valid ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> createItem(@RequestBody @Valid ItemDto itemDto,
                                              @RequestHeader(USER_ID_HEADER) Long ownerId) {
         log.info("Создание вещи: владелец={}, название='{}'", ownerId, itemDto.getName());
         return itemClient.createItem(itemDto, ownerId);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createItems(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                    List<@Valid ItemDto> itemDtos,
+                                                    @RequestHeader(USER_ID_HEADER) Long ownerId) {
+        log.info("Пакетное создание вещей: владелец={}, количество={}", ownerId, itemDtos.size());
+        return itemClient.createItems(itemDtos, ownerId);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> updateItem(@PathVariable Long itemId,
                                              @RequestBody ItemDto itemDto,
                                              @RequestHeader(USER_ID_HEADER) Long ownerId) {
         log.info("Обновление вещи: ID={}, владелец={}", itemId, ownerId);
@@ -34,27 +51,31 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable Long itemId,
-                                              @RequestHeader(USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable Long itemId,
+                                              @RequestHeader(USER_ID_HEADER) Long userId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch) {
         log.info("Получение вещи: ID={}, пользователь={}", itemId, userId);
-        return itemClient.getItemById(itemId, userId);
+        return itemClient.getItemById(itemId, userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwner(@RequestHeader(USER_ID_HEADER) Long ownerId) {
+    public Mono<ResponseEntity<Object>> getItemsByOwner(@RequestHeader(USER_ID_HEADER) Long ownerId) {
         log.info("Получение вещей владельца: ID={}", ownerId);
         return itemClient.getItemsByOwner(ownerId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text,
-                                              @RequestHeader(USER_ID_HEADER) Long userId) {
-        log.info("Поиск вещей: текст='{}', пользователь={}", text, userId);
-        return itemClient.searchItems(text, userId);
+    public Mono<ResponseEntity<Object>> searchItems(@RequestParam String text,
+                                              @RequestHeader(USER_ID_HEADER) Long userId,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                              @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Поиск вещей: текст='{}', пользователь={}, from={}, size={}", text, userId, from, size);
+        return itemClient.searchItems(text, userId, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable Long itemId,
+    public Mono<ResponseEntity<Object>> addComment(@PathVariable Long itemId,
                                              @RequestHeader(USER_ID_HEADER) Long authorId,
                                              @RequestBody @Valid CommentDto commentDto) {
         log.info("Добавление комментария: вещь={}, автор={}", itemId, authorId);
@@ -1,15 +1,19 @@
 package ru.practicum.shareit.gateway.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.BaseClient;
 import ru.practicum.shareit.gateway.request.dto.ItemRequestCreateDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,32 +21,45 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             @Value("${shareit-server.passthrough}") boolean passthrough,
+                             @Value("${shareit-server.reactive}") boolean reactive,
+                             @Value("${shareit-server.max-connections}") int maxConnections,
+                             RestTemplateBuilder builder,
+                             WebClient.Builder webClientBuilder,
+                             MeterRegistry meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> pooledRequestFactory(maxConnections))
+                        .build(),
+                reactive ? reactiveClient(webClientBuilder, serverUrl + API_PREFIX) : null,
+                passthrough,
+                meterRegistry
         );
     }
 
-    public ResponseEntity<Object> createRequest(ItemRequestCreateDto requestDto, Long requestorId) {
+    public Mono<ResponseEntity<Object>> createRequest(ItemRequestCreateDto requestDto, Long requestorId) {
         return post("", requestorId, requestDto);
     }
 
-    public ResponseEntity<Object> getUserRequests(Long requestorId) {
-        return get("", requestorId);
+    public Mono<ResponseEntity<Object>> getUserRequests(Long requestorId, @Nullable String ifNoneMatch) {
+        return get("", requestorId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllRequests(Long userId, int from, int size, @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        ));
+        if (cursor == null) {
+            return get("/all?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/all?from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(Long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getRequestById(Long requestId, Long userId, @Nullable String ifNoneMatch) {
+        return get("/{requestId}", userId, Map.of("requestId", requestId), ifNoneMatch);
     }
 }
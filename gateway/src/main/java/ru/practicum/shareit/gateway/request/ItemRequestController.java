@@ -3,9 +3,11 @@ package ru.practicum.shareit.gateway.request;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.request.dto.ItemRequestCreateDto;
 
 @RestController
@@ -18,7 +20,7 @@ public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestBody @Valid ItemRequestCreateDto requestDto,
+    public Mono<ResponseEntity<Object>> createRequest(@RequestBody @Valid ItemRequestCreateDto requestDto,
                                                 @RequestHeader(USER_ID_HEADER) Long requestorId) {
         log.info("Создание запроса на вещь: пользователь={}, описание='{}'",
                 requestorId, requestDto.getDescription());
@@ -26,24 +28,29 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader(USER_ID_HEADER) Long requestorId) {
+    public Mono<ResponseEntity<Object>> getUserRequests(@RequestHeader(USER_ID_HEADER) Long requestorId,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                  String ifNoneMatch) {
         log.info("Получение запросов пользователя: ID={}", requestorId);
-        return itemRequestClient.getUserRequests(requestorId);
+        return itemRequestClient.getUserRequests(requestorId, ifNoneMatch);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
                                                  @RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "10") int size) {
-        log.info("Получение всех запросов других пользователей: пользователь={}, from={}, size={}",
-                userId, from, size);
-        return itemRequestClient.getAllRequests(userId, from, size);
+                                                 @RequestParam(defaultValue = "10") int size,
+                                                 @RequestParam(required = false) String cursor) {
+        log.info("Получение всех запросов других пользователей: пользователь={}, from={}, size={}, cursor={}",
+                userId, from, size, cursor);
+        return itemRequestClient.getAllRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable Long requestId,
-                                                 @RequestHeader(USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@PathVariable Long requestId,
+                                                 @RequestHeader(USER_ID_HEADER) Long userId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                 String ifNoneMatch) {
         log.info("Получение запроса: ID={}, пользователь={}", requestId, userId);
-        return itemRequestClient.getRequestById(requestId, userId);
+        return itemRequestClient.getRequestById(requestId, userId, ifNoneMatch);
     }
 }
\ No newline at end of file
@@ -1,24 +1,30 @@
 package ru.practicum.shareit.gateway.booking;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.gateway.booking.dto.BookingDto;
 import ru.practicum.shareit.gateway.booking.dto.BookingState;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class BookingClientTest {
 
     @Test
     void allMethods_shouldBeCovered() {
-        var client = new BookingClient("http://unreachable-host", new RestTemplateBuilder());
+        var client = new BookingClient("http://unreachable-host", true, false, 10, new RestTemplateBuilder(), WebClient.builder(), new SimpleMeterRegistry());
         BookingDto dto = BookingDto.builder().build();
 
-        assertThrows(Exception.class, () -> client.getBookings(1L, BookingState.ALL, 0, 10));
-        assertThrows(Exception.class, () -> client.getOwnerBookings(1L, BookingState.CURRENT, 5, 20));
-        assertThrows(Exception.class, () -> client.bookItem(1L, dto));
-        assertThrows(Exception.class, () -> client.approveBooking(1L, 100L, true));
-        assertThrows(Exception.class, () -> client.approveBooking(1L, 100L, false));
-        assertThrows(Exception.class, () -> client.getBooking(1L, 100L));
+        assertThrows(Exception.class, () -> client.getBookings(1L, BookingState.ALL, 0, 10, null).block());
+        assertThrows(Exception.class, () -> client.getOwnerBookings(1L, BookingState.CURRENT, 5, 20, null).block());
+        assertThrows(Exception.class, () -> client.getOwnerBookings(1L, BookingState.PAST, 0, 20, "cursor").block());
+        assertThrows(Exception.class, () -> client.bookItem(1L, dto).block());
+        assertThrows(Exception.class, () -> client.bookItems(1L, List.of(dto, dto)).block());
+        assertThrows(Exception.class, () -> client.approveBooking(1L, 100L, true).block());
+        assertThrows(Exception.class, () -> client.approveBooking(1L, 100L, false).block());
+        assertThrows(Exception.class, () -> client.getBooking(1L, 100L).block());
     }
 }
\ No newline at end of file
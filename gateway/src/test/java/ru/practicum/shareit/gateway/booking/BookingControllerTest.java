@@ -11,6 +11,7 @@ import ru.practicum.shareit.gateway.booking.dto.BookingDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -48,6 +49,28 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.error").value(containsString("itemId")));
     }
 
+    @Test
+    void createBookings_shouldValidateEveryRecord() throws Exception {
+        List<BookingDto> batch = List.of(
+                BookingDto.builder()
+                        .itemId(1L)
+                        .start(LocalDateTime.now().plusDays(1))
+                        .end(LocalDateTime.now().plusDays(2))
+                        .build(),
+                BookingDto.builder()
+                        .start(LocalDateTime.now().plusDays(1))
+                        .end(LocalDateTime.now().plusDays(2))
+                        .build());
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(USER_ID_HEADER, 1L)
+                        .content(objectMapper.writeValueAsString(batch))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("[1].itemId")));
+    }
+
     @Test
     void createBooking_shouldValidateStartDate() throws Exception {
         BookingDto invalidDto = BookingDto.builder()
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.gateway.client;
 
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.*;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -32,25 +38,25 @@ class BaseClientTest {
         when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class), any(Map.class)))
                 .thenReturn(mockResponse);
 
-        assertNotNull(client.get("/test"));
-        assertNotNull(client.get("/test", 1L));
-        assertNotNull(client.get("/test", 1L, Map.of("key", "value")));
+        assertNotNull(client.get("/test").block());
+        assertNotNull(client.get("/test", 1L).block());
+        assertNotNull(client.get("/test", 1L, Map.of("key", "value")).block());
 
-        assertNotNull(client.post("/test", "body"));
-        assertNotNull(client.post("/test", 1L, "body"));
-        assertNotNull(client.post("/test", 1L, Map.of("key", "value"), "body"));
+        assertNotNull(client.post("/test", "body").block());
+        assertNotNull(client.post("/test", 1L, "body").block());
+        assertNotNull(client.post("/test", 1L, Map.of("key", "value"), "body").block());
 
-        assertNotNull(client.put("/test", 1L, "body"));
-        assertNotNull(client.put("/test", 1L, Map.of("key", "value"), "body"));
+        assertNotNull(client.put("/test", 1L, "body").block());
+        assertNotNull(client.put("/test", 1L, Map.of("key", "value"), "body").block());
 
-        assertNotNull(client.patch("/test", "body"));
-        assertNotNull(client.patch("/test", 1L));
-        assertNotNull(client.patch("/test", 1L, "body"));
-        assertNotNull(client.patch("/test", 1L, Map.of("key", "value"), "body"));
+        assertNotNull(client.patch("/test", "body").block());
+        assertNotNull(client.patch("/test", 1L).block());
+        assertNotNull(client.patch("/test", 1L, "body").block());
+        assertNotNull(client.patch("/test", 1L, Map.of("key", "value"), "body").block());
 
-        assertNotNull(client.delete("/test"));
-        assertNotNull(client.delete("/test", 1L));
-        assertNotNull(client.delete("/test", 1L, Map.of("key", "value")));
+        assertNotNull(client.delete("/test").block());
+        assertNotNull(client.delete("/test", 1L).block());
+        assertNotNull(client.delete("/test", 1L, Map.of("key", "value")).block());
     }
 
     @Test
@@ -60,7 +66,7 @@ class BaseClientTest {
         when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class), any(Map.class)))
                 .thenReturn(ResponseEntity.ok("test"));
 
-        ResponseEntity<Object> response = client.get("/test", 1L, Map.of("id", 123));
+        ResponseEntity<Object> response = client.get("/test", 1L, Map.of("id", 123)).block();
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -80,7 +86,7 @@ class BaseClientTest {
         when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class)))
                 .thenThrow(exception);
 
-        ResponseEntity<Object> response = client.get("/test");
+        ResponseEntity<Object> response = client.get("/test").block();
 
         assertNotNull(response);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -99,7 +105,7 @@ class BaseClientTest {
                     return ResponseEntity.ok("ok");
                 });
 
-        client.get("/test", 123L);
+        client.get("/test", 123L).block();
     }
 
     @Test
@@ -113,7 +119,7 @@ class BaseClientTest {
                     return ResponseEntity.ok("ok");
                 });
 
-        client.get("/test");
+        client.get("/test").block();
     }
 
     @Test
@@ -123,7 +129,7 @@ class BaseClientTest {
         when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class)))
                 .thenReturn(ResponseEntity.ok("success"));
 
-        ResponseEntity<Object> response = client.get("/test");
+        ResponseEntity<Object> response = client.get("/test").block();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("success", response.getBody());
@@ -136,7 +142,7 @@ class BaseClientTest {
         when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class)))
                 .thenReturn(ResponseEntity.status(HttpStatus.NOT_FOUND).body("not found"));
 
-        ResponseEntity<Object> response = client.get("/test");
+        ResponseEntity<Object> response = client.get("/test").block();
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("not found", response.getBody());
@@ -149,7 +155,7 @@ class BaseClientTest {
         when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class)))
                 .thenReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
 
-        ResponseEntity<Object> response = client.get("/test");
+        ResponseEntity<Object> response = client.get("/test").block();
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertNull(response.getBody());
@@ -171,9 +177,200 @@ class BaseClientTest {
         when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class)))
                 .thenThrow(exception);
 
-        ResponseEntity<Object> response = client.get("/test");
+        ResponseEntity<Object> response = client.get("/test").block();
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertArrayEquals(errorBody, (byte[]) response.getBody());
     }
+
+    @Test
+    void testPassthroughKeepsBodyBytesAndEndToEndHeaders() {
+        BaseClient client = new BaseClient(restTemplate, true);
+
+        byte[] body = "[{\"id\":1}]".getBytes();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        headers.set("X-Next-Cursor", "abc");
+
+        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(byte[].class), any(Map.class)))
+                .thenReturn(new ResponseEntity<>(body, headers, HttpStatus.OK));
+
+        ResponseEntity<Object> response = client.get("/test", 1L, Map.of("state", "ALL")).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(body, response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class), any(Map.class));
+    }
+
+    @Test
+    void testConditionalGetForwardsIfNoneMatchAndKeepsEtagOnNotModified() {
+        BaseClient client = new BaseClient(restTemplate);
+
+        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(Object.class), any(Map.class)))
+                .thenAnswer(invocation -> {
+                    HttpEntity<?> entity = invocation.getArgument(2);
+                    assertEquals("\"abc\"", entity.getHeaders().getIfNoneMatch().getFirst());
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"abc\"").build();
+                });
+
+        ResponseEntity<Object> response = client.get("/{id}", 1L, Map.of("id", 1), "\"abc\"").block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testReactiveNotModifiedKeepsEtagWithoutBody() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://server/items")
+                .exchangeFunction(request -> {
+                    assertEquals("\"abc\"", request.headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+                    return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED)
+                            .header(HttpHeaders.ETAG, "\"abc\"")
+                            .build());
+                })
+                .build();
+        BaseClient client = new BaseClient(restTemplate, webClient, true);
+
+        ResponseEntity<Object> response = client.get("/{id}", 7L, Map.of("id", 1), "\"abc\"").block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testPassthroughErrorKeepsStatusAndContentType() {
+        BaseClient client = new BaseClient(restTemplate, true);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        byte[] errorBody = "{\"error\":\"not found\"}".getBytes();
+        HttpClientErrorException exception = HttpClientErrorException.create(
+                HttpStatus.NOT_FOUND, "Not Found", headers, errorBody, null);
+
+        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(byte[].class)))
+                .thenThrow(exception);
+
+        ResponseEntity<Object> response = client.get("/test", 1L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(errorBody, (byte[]) response.getBody());
+    }
+
+    @Test
+    void testPassthroughErrorWithoutBody() {
+        BaseClient client = new BaseClient(restTemplate, true);
+
+        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(byte[].class)))
+                .thenReturn(ResponseEntity.status(HttpStatus.NO_CONTENT).build());
+
+        ResponseEntity<Object> response = client.delete("/test").block();
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testReactivePassthroughPropagatesHeadersAndBody() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://server/bookings")
+                .exchangeFunction(request -> {
+                    assertEquals("/bookings", request.url().getPath());
+                    assertEquals("state=ALL", request.url().getQuery());
+                    assertEquals("7", request.headers().getFirst("X-Sharer-User-Id"));
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .header("X-Next-Cursor", "abc")
+                            .body("[{\"id\":1}]")
+                            .build());
+                })
+                .build();
+        BaseClient client = new BaseClient(restTemplate, webClient, true);
+
+        ResponseEntity<Object> response = client.get("?state={state}", 7L, Map.of("state", "ALL")).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("[{\"id\":1}]", new String((byte[]) response.getBody()));
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testReactiveDeserializesBodyWithoutPassthrough() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"id\":1}")
+                        .build()))
+                .build();
+        BaseClient client = new BaseClient(restTemplate, webClient, false);
+
+        ResponseEntity<Object> response = client.post("/test", 1L, Map.of("name", "Дрель")).block();
+
+        assertNotNull(response);
+        assertEquals(Map.of("id", 1), response.getBody());
+    }
+
+    @Test
+    void testReactiveErrorKeepsStatusAndBody() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"error\":\"not found\"}")
+                        .build()))
+                .build();
+        BaseClient client = new BaseClient(restTemplate, webClient, true);
+
+        ResponseEntity<Object> response = client.get("/test", 1L).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("{\"error\":\"not found\"}", new String((byte[]) response.getBody()));
+    }
+
+    @Test
+    void testReactiveEmptyBody() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+                .build();
+        BaseClient client = new BaseClient(restTemplate, webClient, true);
+
+        ResponseEntity<Object> response = client.delete("/test").block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testRequestTimerTaggedByPathTemplateStateAndStatus() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BaseClient client = new BaseClient(restTemplate, null, true, registry);
+
+        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), eq(byte[].class), any(Map.class)))
+                .thenReturn(ResponseEntity.ok(new byte[0]))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        client.get("/owner?state={state}&from={from}", 1L, Map.of("state", "WAITING", "from", 0)).block();
+        assertThrows(ResourceAccessException.class,
+                () -> client.get("/{bookingId}", 1L, Map.of("bookingId", 42L)).block());
+
+        Timer ok = registry.get("shareit.gateway.client.requests")
+                .tags("client", "BaseClient", "method", "GET", "uri", "/owner", "state", "WAITING", "status", "200")
+                .timer();
+        Timer failed = registry.get("shareit.gateway.client.requests")
+                .tags("uri", "/{bookingId}", "state", "none", "status", "IO_ERROR")
+                .timer();
+        assertEquals(1, ok.count());
+        assertEquals(1, failed.count());
+    }
 }
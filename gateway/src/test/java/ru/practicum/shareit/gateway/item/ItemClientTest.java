@@ -1,21 +1,34 @@
 package ru.practicum.shareit.gateway.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.gateway.item.dto.CommentDto;
 import ru.practicum.shareit.gateway.item.dto.ItemDto;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ItemClientTest {
 
     @Test
     void allMethods_shouldBeCovered() {
-        var client = new ItemClient("http://unreachable-host", new RestTemplateBuilder());
+        var client = new ItemClient("http://unreachable-host", true, false, 10, new RestTemplateBuilder(), WebClient.builder(), new SimpleMeterRegistry());
         ItemDto itemDto = ItemDto.builder().build();
         CommentDto commentDto = CommentDto.builder().build();
 
-        assertThrows(Exception.class, () -> client.getItemById(1L, 100L));
-        assertThrows(Exception.class, () -> client.addComment(1L, 100L, commentDto));
+        assertThrows(Exception.class, () -> client.getItemById(1L, 100L, null).block());
+        assertThrows(Exception.class, () -> client.createItems(List.of(itemDto), 100L).block());
+        assertThrows(Exception.class, () -> client.addComment(1L, 100L, commentDto).block());
+        assertThrows(Exception.class, () -> client.searchItems("дрель", 100L, 0, 10).block());
+    }
+
+    @Test
+    void reactiveMode_shouldFailOnUnreachableServer() {
+        var client = new ItemClient("http://unreachable-host", true, true, 10, new RestTemplateBuilder(), WebClient.builder(), new SimpleMeterRegistry());
+
+        assertThrows(Exception.class, () -> client.getItemById(1L, 100L, null).block());
     }
-}
\ No newline at end of file
+}
@@ -5,14 +5,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.item.dto.CommentDto;
 import ru.practicum.shareit.gateway.item.dto.ItemDto;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -94,6 +101,44 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void createItems_shouldValidateEveryRecord() throws Exception {
+        List<ItemDto> batch = List.of(
+                ItemDto.builder().name("Дрель").description("Ударная").available(true).build(),
+                ItemDto.builder().description("Без названия").available(true).build());
+
+        mockMvc.perform(post("/items/batch")
+                        .header(USER_ID_HEADER, 1L)
+                        .content(objectMapper.writeValueAsString(batch))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("[1].name")));
+    }
+
+    @Test
+    void createItems_shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/items/batch")
+                        .header(USER_ID_HEADER, 1L)
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createItems_shouldAcceptValidBatch() throws Exception {
+        List<ItemDto> batch = List.of(
+                ItemDto.builder().name("Дрель").description("Ударная").available(true).build(),
+                ItemDto.builder().name("Пила").description("Циркулярная").available(false).build());
+
+        mockMvc.perform(post("/items/batch")
+                        .header(USER_ID_HEADER, 1L)
+                        .content(objectMapper.writeValueAsString(batch))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void updateItem_shouldAcceptPartialUpdate() throws Exception {
         ItemDto updateDto = ItemDto.builder()
@@ -286,4 +331,40 @@ class ItemControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getItemById_shouldCompleteAsynchronouslyWithClientResponse() throws Exception {
+        when(itemClient.getItemById(1L, 2L, null))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"id\":1}".getBytes(StandardCharsets.UTF_8))));
+
+        MvcResult result = mockMvc.perform(get("/items/1")
+                        .header(USER_ID_HEADER, 2L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void getItemById_shouldForwardIfNoneMatchAndRelayNotModified() throws Exception {
+        when(itemClient.getItemById(1L, 2L, "\"abc\""))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag("\"abc\"")
+                        .build()));
+
+        MvcResult result = mockMvc.perform(get("/items/1")
+                        .header(USER_ID_HEADER, 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string(""));
+    }
 }
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.gateway.request;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.gateway.request.dto.ItemRequestCreateDto;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -10,12 +12,13 @@ class ItemRequestClientTest {
 
     @Test
     void allMethods_shouldBeCovered() {
-        var client = new ItemRequestClient("http://unreachable-host", new RestTemplateBuilder());
+        var client = new ItemRequestClient("http://unreachable-host", true, false, 10, new RestTemplateBuilder(), WebClient.builder(), new SimpleMeterRegistry());
         ItemRequestCreateDto dto = new ItemRequestCreateDto();
 
-        assertThrows(Exception.class, () -> client.createRequest(dto, 1L));
-        assertThrows(Exception.class, () -> client.getUserRequests(1L));
-        assertThrows(Exception.class, () -> client.getAllRequests(1L, 0, 10));
-        assertThrows(Exception.class, () -> client.getRequestById(100L, 1L));
+        assertThrows(Exception.class, () -> client.createRequest(dto, 1L).block());
+        assertThrows(Exception.class, () -> client.getUserRequests(1L, null).block());
+        assertThrows(Exception.class, () -> client.getAllRequests(1L, 0, 10, null).block());
+        assertThrows(Exception.class, () -> client.getAllRequests(1L, 0, 10, "cursor").block());
+        assertThrows(Exception.class, () -> client.getRequestById(100L, 1L, null).block());
     }
 }
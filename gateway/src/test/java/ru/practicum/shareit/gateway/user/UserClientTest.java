@@ -1,7 +1,9 @@
 package ru.practicum.shareit.gateway.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.gateway.user.dto.UserDto;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -10,13 +12,13 @@ class UserClientTest {
 
     @Test
     void allMethods_shouldBeCovered() {
-        var client = new UserClient("http://unreachable-host", new RestTemplateBuilder());
+        var client = new UserClient("http://unreachable-host", true, false, 10, new RestTemplateBuilder(), WebClient.builder(), new SimpleMeterRegistry());
         UserDto userDto = UserDto.builder().build();
 
-        assertThrows(Exception.class, () -> client.createUser(userDto));
-        assertThrows(Exception.class, () -> client.updateUser(100L, userDto));
-        assertThrows(Exception.class, () -> client.getUserById(100L));
-        assertThrows(Exception.class, client::getAllUsers);
-        assertThrows(Exception.class, () -> client.deleteUser(100L));
+        assertThrows(Exception.class, () -> client.createUser(userDto).block());
+        assertThrows(Exception.class, () -> client.updateUser(100L, userDto).block());
+        assertThrows(Exception.class, () -> client.getUserById(100L, null).block());
+        assertThrows(Exception.class, () -> client.getAllUsers().block());
+        assertThrows(Exception.class, () -> client.deleteUser(100L).block());
     }
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.load;
+
+import java.util.List;
+
+/**
+ * Идентификаторы заранее созданных пользователей и вещей. Владелец вещи itemIds[i] — itemOwnerIds[i].
+ */
+public record DataSet(List<Long> ownerIds, List<Long> bookerIds, long[] itemIds, long[] itemOwnerIds) {
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки успешных ответов по операциям в микросекундах и число ошибок.
+ * Recorder позволяет писать из многих потоков и забирать накопленное без остановки нагрузки.
+ */
+public class LatencyStats {
+    private static final double MICROS_IN_MILLI = 1000.0;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public LatencyStats() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void recordSuccess(Operation operation, long latencyNanos) {
+        recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    public void recordError(Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    /**
+     * Забирает накопленные с прошлого вызова гистограммы и ошибки.
+     */
+    public Snapshot snapshot() {
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sumThenReset());
+        }
+        return new Snapshot(histograms, errorCounts);
+    }
+
+    public record Snapshot(Map<Operation, Histogram> histograms, Map<Operation, Long> errors) {
+
+        public Histogram total() {
+            Histogram total = new Histogram(3);
+            histograms.values().forEach(total::add);
+            return total;
+        }
+
+        public void print(PrintStream out, Duration elapsed) {
+            out.printf(Locale.ROOT, "%-16s %10s %8s %10s %10s %10s %10s %10s%n",
+                    "operation", "count", "errors", "rps", "p50,ms", "p99,ms", "p99.9,ms", "max,ms");
+            histograms.forEach((operation, histogram) ->
+                    printRow(out, operation.key(), histogram, errors.get(operation), elapsed));
+            printRow(out, "total", total(), errors.values().stream().mapToLong(Long::longValue).sum(), elapsed);
+        }
+
+        /**
+         * Сохраняет распределение задержек в формате .hgrm, пригодном для HdrHistogram Plotter.
+         */
+        public void write(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+                write(directory.resolve(entry.getKey().key() + ".hgrm"), entry.getValue());
+            }
+            write(directory.resolve("total.hgrm"), total());
+        }
+
+        private static void write(Path file, Histogram histogram) throws IOException {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, MICROS_IN_MILLI);
+            }
+        }
+
+        private static void printRow(PrintStream out, String name, Histogram histogram, long errors,
+                                     Duration elapsed) {
+            out.printf(Locale.ROOT, "%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    name,
+                    histogram.getTotalCount(),
+                    errors,
+                    histogram.getTotalCount() / (elapsed.toNanos() / 1e9),
+                    histogram.getValueAtPercentile(50) / MICROS_IN_MILLI,
+                    histogram.getValueAtPercentile(99) / MICROS_IN_MILLI,
+                    histogram.getValueAtPercentile(99.9) / MICROS_IN_MILLI,
+                    histogram.getMaxValue() / MICROS_IN_MILLI);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры прогона из аргументов вида --key=value.
+ * Аргументы --server-arg=... и --gateway-arg=... передаются приложениям как есть,
+ * например --server-arg=spring.threads.virtual.enabled=true.
+ */
+public record LoadOptions(Mode mode,
+                          int concurrency,
+                          int rate,
+                          Duration warmup,
+                          Duration duration,
+                          Map<Operation, Integer> mix,
+                          int owners,
+                          int bookers,
+                          int itemsPerOwner,
+                          Path outputDir,
+                          List<String> serverArgs,
+                          List<String> gatewayArgs) {
+
+    public enum Mode {
+        /** Фиксированное число клиентов, каждый отправляет следующий запрос после ответа на предыдущий. */
+        CLOSED,
+        /** Запросы приходят с фиксированной частотой независимо от того, успевает ли система отвечать. */
+        OPEN
+    }
+
+    private static final String DEFAULT_MIX = "search:30,item:30,book:15,approve:10,owner-bookings:15";
+
+    public static LoadOptions parse(String[] args) {
+        Mode mode = Mode.CLOSED;
+        int concurrency = 32;
+        int rate = 200;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        Map<Operation, Integer> mix = parseMix(DEFAULT_MIX);
+        int owners = 100;
+        int bookers = 1_000;
+        int itemsPerOwner = 20;
+        Path outputDir = Path.of("target", "load");
+        List<String> serverArgs = new ArrayList<>();
+        List<String> gatewayArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается аргумент вида --key=value: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "mode" -> mode = Mode.valueOf(value.toUpperCase());
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "rate" -> rate = Integer.parseInt(value);
+                case "warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                case "mix" -> mix = parseMix(value);
+                case "owners" -> owners = Integer.parseInt(value);
+                case "bookers" -> bookers = Integer.parseInt(value);
+                case "items-per-owner" -> itemsPerOwner = Integer.parseInt(value);
+                case "out" -> outputDir = Path.of(value);
+                case "server-arg" -> serverArgs.add("--" + value);
+                case "gateway-arg" -> gatewayArgs.add("--" + value);
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + key);
+            }
+        }
+        if (concurrency <= 0 || rate <= 0) {
+            throw new IllegalArgumentException("Параметры concurrency и rate должны быть положительными");
+        }
+        return new LoadOptions(mode, concurrency, rate, warmup, duration, mix, owners, bookers, itemsPerOwner,
+                outputDir, List.copyOf(serverArgs), List.copyOf(gatewayArgs));
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Ожидается смесь вида search:30,item:30: " + value);
+            }
+            mix.put(Operation.fromKey(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон шлюза и сервера в одном процессе.
+ * В открытом режиме задержка считается от запланированного момента отправки, а не от фактического,
+ * поэтому время ожидания в очереди перегруженной системы тоже попадает в распределение.
+ */
+@Slf4j
+public class LoadRunner {
+    private final LoadOptions options;
+    private final Traffic traffic;
+    private final LatencyStats stats = new LatencyStats();
+
+    public LoadRunner(LoadOptions options, Traffic traffic) {
+        this.options = options;
+        this.traffic = traffic;
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadOptions options = LoadOptions.parse(args);
+        try (ShareItStack stack = ShareItStack.start(options)) {
+            DataSet data = stack.seed(options);
+            LoadRunner runner = new LoadRunner(options, new Traffic(stack.gatewayUri(), data, options.mix()));
+
+            log.info("Прогрев: {} c", options.warmup().toSeconds());
+            runner.run(options.warmup());
+            runner.stats.snapshot();
+
+            log.info("Замер: режим {}, {} c", options.mode(), options.duration().toSeconds());
+            long started = System.nanoTime();
+            runner.run(options.duration());
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+            LatencyStats.Snapshot snapshot = runner.stats.snapshot();
+            System.out.printf("%nРежим: %s, %s, длительность замера: %d c%n", options.mode(),
+                    options.mode() == LoadOptions.Mode.OPEN
+                            ? "частота " + options.rate() + " запросов/c"
+                            : "клиентов " + options.concurrency(),
+                    elapsed.toSeconds());
+            snapshot.print(System.out, elapsed);
+            snapshot.write(options.outputDir());
+            log.info("Распределения задержек сохранены в {}", options.outputDir().toAbsolutePath());
+        }
+    }
+
+    public void run(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (options.mode() == LoadOptions.Mode.OPEN) {
+                long period = 1_000_000_000L / options.rate();
+                long start = System.nanoTime();
+                for (long i = 0; start + i * period < deadline; i++) {
+                    long intendedStart = start + i * period;
+                    LockSupport.parkNanos(intendedStart - System.nanoTime());
+                    executor.submit(() -> call(ThreadLocalRandom.current(), intendedStart));
+                }
+            } else {
+                for (int i = 0; i < options.concurrency(); i++) {
+                    executor.submit(() -> {
+                        Random random = ThreadLocalRandom.current();
+                        while (System.nanoTime() < deadline) {
+                            call(random, System.nanoTime());
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    private void call(Random random, long startNanos) {
+        Operation operation = traffic.choose(random);
+        try {
+            int status = traffic.execute(operation, random);
+            if (status < 400) {
+                stats.recordSuccess(operation, System.nanoTime() - startNanos);
+            } else {
+                stats.recordError(operation);
+            }
+        } catch (IOException e) {
+            stats.recordError(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
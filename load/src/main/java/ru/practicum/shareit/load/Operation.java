@@ -0,0 +1,28 @@
+package ru.practicum.shareit.load;
+
+public enum Operation {
+    SEARCH("search"),
+    ITEM("item"),
+    BOOK("book"),
+    APPROVE("approve"),
+    OWNER_BOOKINGS("owner-bookings");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестная операция: " + key);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.gateway.ShareItGateway;
+import ru.practicum.shareit.server.ShareItServer;
+import ru.practicum.shareit.server.batch.Batches;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.NgramItemSearchEngine;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Сервер на H2 и шлюз в одном процессе на свободных портах. У каждого приложения свой файл настроек:
+ * application.properties сервера и шлюза лежат в корне classpath и перекрывали бы друг друга.
+ */
+@Slf4j
+public final class ShareItStack implements AutoCloseable {
+    static final List<String> ITEM_NAMES = List.of(
+            "Дрель", "Перфоратор", "Шуруповерт", "Лобзик", "Болгарка", "Лестница", "Палатка", "Велосипед",
+            "Самокат", "Пила", "Молоток", "Отвертка", "Сноуборд", "Байдарка", "Проектор", "Фотоаппарат");
+    private static final List<String> ADJECTIVES = List.of(
+            "аккумуляторная", "ударная", "складная", "профессиональная", "компактная", "туристическая");
+
+    private final ConfigurableApplicationContext server;
+    private final ConfigurableApplicationContext gateway;
+
+    private ShareItStack(ConfigurableApplicationContext server, ConfigurableApplicationContext gateway) {
+        this.server = server;
+        this.gateway = gateway;
+    }
+
+    public static ShareItStack start(LoadOptions options) {
+        ConfigurableApplicationContext server = new SpringApplicationBuilder(ShareItServer.class)
+                .run(args("shareit-load-server", options.serverArgs()));
+        int serverPort = port(server);
+        log.info("Сервер запущен на порту {}", serverPort);
+
+        List<String> gatewayArgs = new ArrayList<>(options.gatewayArgs());
+        gatewayArgs.addFirst("--shareit-server.url=http://localhost:" + serverPort);
+        ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .run(args("shareit-load-gateway", gatewayArgs));
+        log.info("Шлюз запущен на порту {}", port(gateway));
+
+        return new ShareItStack(server, gateway);
+    }
+
+    public URI gatewayUri() {
+        return URI.create("http://localhost:" + port(gateway));
+    }
+
+    /**
+     * Создаёт пользователей и вещи напрямую через репозитории сервера, минуя HTTP.
+     */
+    public DataSet seed(LoadOptions options) {
+        UserRepository userRepository = server.getBean(UserRepository.class);
+        ItemRepository itemRepository = server.getBean(ItemRepository.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                server.getBean(PlatformTransactionManager.class));
+        Random random = new Random(42);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < options.owners() + options.bookers(); i++) {
+            users.add(User.builder()
+                    .name("Пользователь " + i)
+                    .email("load" + i + "@shareit.ru")
+                    .build());
+        }
+        saveInChunks(transactionTemplate, users, userRepository::saveAll);
+        List<User> owners = users.subList(0, options.owners());
+        List<User> bookers = users.subList(options.owners(), users.size());
+
+        List<Item> items = new ArrayList<>();
+        for (User owner : owners) {
+            for (int i = 0; i < options.itemsPerOwner(); i++) {
+                items.add(Item.builder()
+                        .name(ITEM_NAMES.get(random.nextInt(ITEM_NAMES.size())) + " "
+                                + ADJECTIVES.get(random.nextInt(ADJECTIVES.size())))
+                        .description("В хорошем состоянии, " + ADJECTIVES.get(random.nextInt(ADJECTIVES.size())))
+                        .available(true)
+                        .owner(owner)
+                        .build());
+            }
+        }
+        saveInChunks(transactionTemplate, items, itemRepository::saveAll);
+        server.getBeanProvider(NgramItemSearchEngine.class).ifAvailable(NgramItemSearchEngine::rebuild);
+        log.info("Создано пользователей: {}, вещей: {}", users.size(), items.size());
+
+        return new DataSet(
+                owners.stream().map(User::getId).toList(),
+                bookers.stream().map(User::getId).toList(),
+                items.stream().mapToLong(Item::getId).toArray(),
+                items.stream().mapToLong(item -> item.getOwner().getId()).toArray());
+    }
+
+    @Override
+    public void close() {
+        gateway.close();
+        server.close();
+    }
+
+    private static String[] args(String configName, List<String> extraArgs) {
+        return Stream.concat(Stream.of("--spring.config.name=" + configName), extraArgs.stream())
+                .toArray(String[]::new);
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static <T> void saveInChunks(TransactionTemplate transactionTemplate, List<T> entities,
+                                         Consumer<List<T>> saveAll) {
+        for (List<T> chunk : Batches.chunks(entities, Batches.CHUNK_SIZE)) {
+            transactionTemplate.executeWithoutResult(status -> saveAll.accept(chunk));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Запросы к шлюзу для каждой операции смеси. Новые бронирования попадают в очередь
+ * на подтверждение, а их интервалы не пересекаются, чтобы сервер не отклонял их как конфликтующие.
+ */
+public class Traffic {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int PAGE_SIZE = 20;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI gateway;
+    private final DataSet data;
+    private final Operation[] weighted;
+    private final Queue<PendingBooking> pendingApprovals = new ConcurrentLinkedQueue<>();
+    private final LocalDateTime bookingsFrom = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    private final AtomicLong bookingSlots = new AtomicLong();
+
+    public Traffic(URI gateway, DataSet data, Map<Operation, Integer> mix) {
+        this.gateway = gateway;
+        this.data = data;
+        this.weighted = mix.entrySet().stream()
+                .flatMap(weight -> Stream.generate(weight::getKey).limit(weight.getValue()))
+                .toArray(Operation[]::new);
+        if (weighted.length == 0) {
+            throw new IllegalArgumentException("Смесь операций пуста");
+        }
+    }
+
+    public Operation choose(Random random) {
+        Operation operation = weighted[random.nextInt(weighted.length)];
+        // Подтверждать пока нечего: бронирование и пополняет очередь
+        if (operation == Operation.APPROVE && pendingApprovals.isEmpty()) {
+            return Operation.BOOK;
+        }
+        return operation;
+    }
+
+    /**
+     * Выполняет операцию и возвращает HTTP-статус ответа.
+     */
+    public int execute(Operation operation, Random random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case SEARCH -> send(get("/items/search?text=" + searchText(random) + "&from=0&size=" + PAGE_SIZE,
+                    randomOf(data.bookerIds(), random))).statusCode();
+            case ITEM -> send(get("/items/" + data.itemIds()[random.nextInt(data.itemIds().length)],
+                    randomOf(data.bookerIds(), random))).statusCode();
+            case BOOK -> book(random);
+            case APPROVE -> approve(random);
+            case OWNER_BOOKINGS -> send(get("/bookings/owner?state=ALL&from=0&size=" + PAGE_SIZE,
+                    randomOf(data.ownerIds(), random))).statusCode();
+        };
+    }
+
+    private int book(Random random) throws IOException, InterruptedException {
+        int item = random.nextInt(data.itemIds().length);
+        LocalDateTime start = bookingsFrom.plusSeconds(bookingSlots.getAndIncrement() * 10);
+        String body = "{\"itemId\":" + data.itemIds()[item]
+                + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusSeconds(5) + "\"}";
+        HttpResponse<String> response = send(request("/bookings", randomOf(data.bookerIds(), random))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        if (response.statusCode() < 300) {
+            long bookingId = objectMapper.readTree(response.body()).get("id").asLong();
+            pendingApprovals.add(new PendingBooking(bookingId, data.itemOwnerIds()[item]));
+        }
+        return response.statusCode();
+    }
+
+    private int approve(Random random) throws IOException, InterruptedException {
+        PendingBooking booking = pendingApprovals.poll();
+        if (booking == null) {
+            return book(random);
+        }
+        return send(request("/bookings/" + booking.bookingId() + "?approved=true", booking.ownerId())
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build()).statusCode();
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return request(path, userId).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path, long userId) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header(USER_ID_HEADER, String.valueOf(userId));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String searchText(Random random) {
+        String name = ShareItStack.ITEM_NAMES.get(random.nextInt(ShareItStack.ITEM_NAMES.size()));
+        return URLEncoder.encode(name.substring(0, 4).toLowerCase(), StandardCharsets.UTF_8);
+    }
+
+    private static long randomOf(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private record PendingBooking(long bookingId, long ownerId) {
+    }
+}
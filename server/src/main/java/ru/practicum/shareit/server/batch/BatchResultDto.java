@@ -0,0 +1,33 @@
+package ru.practicum.shareit.server.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Результат обработки одной записи пакетного запроса. index — позиция записи во входном списке,
+ * status — HTTP-статус, который вернул бы одиночный запрос.
+ */
+@Data
+@AllArgsConstructor
+public class BatchResultDto<T> {
+    private int index;
+    private int status;
+    private T result;
+    private String error;
+
+    public static <T> BatchResultDto<T> created(int index, T result) {
+        return new BatchResultDto<>(index, HttpStatus.CREATED.value(), result, null);
+    }
+
+    public static <T> BatchResultDto<T> failed(int index, RuntimeException e) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        if (status == null) {
+            // Как и ErrorHandler, текст непредвиденных ошибок (SQL, драйвер) клиенту не отдаётся
+            return new BatchResultDto<>(index, HttpStatus.INTERNAL_SERVER_ERROR.value(), null, "Internal server error");
+        }
+        return new BatchResultDto<>(index, status.code().value(), null, e.getMessage());
+    }
+}
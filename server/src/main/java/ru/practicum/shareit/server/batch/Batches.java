@@ -0,0 +1,22 @@
+package ru.practicum.shareit.server.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Batches {
+    /**
+     * Число записей, сохраняемых в одной транзакции. Кратно hibernate.jdbc.batch_size.
+     */
+    public static final int CHUNK_SIZE = 500;
+
+    private Batches() {
+    }
+
+    public static <T> List<List<T>> chunks(List<T> list, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += size) {
+            chunks.add(list.subList(from, Math.min(from + size, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -2,10 +2,13 @@ package ru.practicum.shareit.server.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.batch.BatchResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.model.BookingState;
 import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.pagination.SeekCursor;
 
 import java.util.List;
 
@@ -16,6 +19,7 @@ import java.util.List;
 public class BookingController {
     private final BookingService bookingService;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping
     public BookingDto createBooking(@RequestBody BookingDto bookingDto,
@@ -24,6 +28,13 @@ public class BookingController {
         return bookingService.createBooking(bookingDto, bookerId);
     }
 
+    @PostMapping("/batch")
+    public List<BatchResultDto<BookingDto>> createBookings(@RequestBody List<BookingDto> bookingDtos,
+                                                           @RequestHeader(USER_ID_HEADER) Long bookerId) {
+        log.info("Пакетное создание бронирований: пользователь={}, количество={}", bookerId, bookingDtos.size());
+        return bookingService.createBookings(bookingDtos, bookerId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@PathVariable Long bookingId,
                                      @RequestHeader(USER_ID_HEADER) Long ownerId,
@@ -41,24 +52,35 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(
+    public ResponseEntity<List<BookingDto>> getUserBookings(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") BookingState state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Получение бронирований пользователя {}: состояние={}, from={}, size={}",
-                userId, state, from, size);
-        return bookingService.getUserBookings(userId, state, "start", "DESC");
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Получение бронирований пользователя {}: состояние={}, from={}, size={}, cursor={}",
+                userId, state, from, size, cursor);
+        return withNextCursor(bookingService.getUserBookings(userId, state, from, size, cursor), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(
             @RequestHeader(USER_ID_HEADER) Long ownerId,
             @RequestParam(defaultValue = "ALL") BookingState state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Получение бронирований владельца {}: состояние={}, from={}, size={}",
-                ownerId, state, from, size);
-        return bookingService.getOwnerBookings(ownerId, state, "start", "DESC");
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Получение бронирований владельца {}: состояние={}, from={}, size={}, cursor={}",
+                ownerId, state, from, size, cursor);
+        return withNextCursor(bookingService.getOwnerBookings(ownerId, state, from, size, cursor), size);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            BookingDto last = bookings.getLast();
+            response.header(NEXT_CURSOR_HEADER, new SeekCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings);
     }
-}
+}
\ No newline at end of file
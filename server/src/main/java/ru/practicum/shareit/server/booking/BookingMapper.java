@@ -17,4 +17,15 @@ public class BookingMapper {
                 .item(new BookingDto.ItemDto(booking.getItem().getId(), booking.getItem().getName()))
                 .build();
     }
+
+    public BookingDto toDto(BookingView booking) {
+        return BookingDto.builder()
+                .id(booking.id())
+                .start(booking.start())
+                .end(booking.end())
+                .status(booking.status())
+                .booker(new BookingDto.BookerDto(booking.bookerId(), booking.bookerName()))
+                .item(new BookingDto.ItemDto(booking.itemId(), booking.itemName()))
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,65 +1,117 @@
 package ru.practicum.shareit.server.booking;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.summary.ItemBookingEnd;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String SEEK = "AND (b.start, b.id) < (:cursorStart, :cursorId)";
+    String VIEW = "SELECT new ru.practicum.shareit.server.booking.BookingView(" +
+            "b.id, b.start, b.end, b.status, bk.id, bk.name, i.id, i.name) " +
+            "FROM Booking b JOIN b.booker bk JOIN b.item i ";
 
     @Query("SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item WHERE b.id = :id")
     Optional<Booking> findByIdWithRelations(@Param("id") Long id);
 
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.booker.id = :bookerId")
-    List<Booking> findByBookerId(@Param("bookerId") Long bookerId, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.booker.id = :bookerId " +
-            "AND b.start <= :now AND b.end >= :now")
-    List<Booking> findCurrentByBookerId(@Param("bookerId") Long bookerId,
-                                        @Param("now") LocalDateTime now, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.booker.id = :bookerId AND b.end < :now")
-    List<Booking> findByBookerIdAndEndBefore(@Param("bookerId") Long bookerId,
-                                             @Param("now") LocalDateTime now, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.booker.id = :bookerId AND b.start > :now")
-    List<Booking> findByBookerIdAndStartAfter(@Param("bookerId") Long bookerId,
-                                              @Param("now") LocalDateTime now, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.booker.id = :bookerId AND b.status = :status")
-    List<Booking> findByBookerIdAndStatus(@Param("bookerId") Long bookerId,
-                                          @Param("status") BookingStatus status, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId")
-    List<Booking> findByItemOwnerId(@Param("ownerId") Long ownerId, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND b.start <= :now AND b.end >= :now")
-    List<Booking> findCurrentByOwnerId(@Param("ownerId") Long ownerId,
-                                       @Param("now") LocalDateTime now, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND b.end < :now")
-    List<Booking> findByItemOwnerIdAndEndBefore(@Param("ownerId") Long ownerId,
-                                                @Param("now") LocalDateTime now, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND b.start > :now")
-    List<Booking> findByItemOwnerIdAndStartAfter(@Param("ownerId") Long ownerId,
-                                                 @Param("now") LocalDateTime now, Sort sort);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item " +
-            "WHERE b.item.owner.id = :ownerId AND b.status = :status")
-    List<Booking> findByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId,
-                                             @Param("status") BookingStatus status, Sort sort);
+    @Query("SELECT MIN(b.end) FROM Booking b " +
+            "WHERE b.booker.id = :bookerId AND b.item.id = :itemId AND b.status = :status")
+    Optional<LocalDateTime> findFirstEndByBookerIdAndItemIdAndStatus(@Param("bookerId") Long bookerId,
+                                                                     @Param("itemId") Long itemId,
+                                                                     @Param("status") BookingStatus status);
+
+    @Query(VIEW + "WHERE b.booker.id = :bookerId " + SEEK)
+    List<BookingView> findByBookerId(@Param("bookerId") Long bookerId,
+                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                     @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE b.booker.id = :bookerId " +
+            "AND b.start <= :now AND b.end >= :now " + SEEK)
+    List<BookingView> findCurrentByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE b.booker.id = :bookerId AND b.end < :now " + SEEK)
+    List<BookingView> findByBookerIdAndEndBefore(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE b.booker.id = :bookerId AND b.start > :now " + SEEK)
+    List<BookingView> findByBookerIdAndStartAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                  @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE b.booker.id = :bookerId AND b.status = :status " + SEEK)
+    List<BookingView> findByBookerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status") BookingStatus status,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.owner.id = :ownerId " + SEEK)
+    List<BookingView> findByItemOwnerId(@Param("ownerId") Long ownerId,
+                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                        @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.owner.id = :ownerId AND b.start <= :now AND b.end >= :now " + SEEK)
+    List<BookingView> findCurrentByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                           @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.owner.id = :ownerId AND b.end < :now " + SEEK)
+    List<BookingView> findByItemOwnerIdAndEndBefore(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.owner.id = :ownerId AND b.start > :now " + SEEK)
+    List<BookingView> findByItemOwnerIdAndStartAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.owner.id = :ownerId AND b.status = :status " + SEEK)
+    List<BookingView> findByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") BookingStatus status,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status AND b.end < :now " +
+            "AND b.end = (SELECT MAX(b2.end) FROM Booking b2 " +
+            "WHERE b2.item.id = b.item.id AND b2.status = :status AND b2.end < :now)")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("status") BookingStatus status,
+                                            @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status AND b.start > :now " +
+            "AND b.start = (SELECT MIN(b2.start) FROM Booking b2 " +
+            "WHERE b2.item.id = b.item.id AND b2.status = :status AND b2.start > :now)")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("status") BookingStatus status,
+                                            @Param("now") LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.server.booking.summary.ItemBookingEnd(b.item.id, MIN(b.end)) " +
+            "FROM Booking b WHERE b.item.id IN :itemIds AND b.status = :status AND b.end >= :now " +
+            "GROUP BY b.item.id")
+    List<ItemBookingEnd> findEarliestEndsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("status") BookingStatus status,
+                                                   @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :now")
+    List<Booking> findActiveByItemId(@Param("itemId") Long itemId,
+                                     @Param("statuses") Collection<BookingStatus> statuses,
+                                     @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status IN :statuses AND b.end > :now")
+    List<Booking> findActiveByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                       @Param("statuses") Collection<BookingStatus> statuses,
+                                       @Param("now") LocalDateTime now);
 
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.server.booking;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.booking.model.BookingState;
+
+import java.util.Arrays;
+
+/**
+ * Добавляет к метрике http.server.requests тег state, чтобы задержки списков бронирований
+ * можно было разделить по BookingState. Неизвестные значения сводятся к INVALID,
+ * чтобы произвольный ввод не раздувал число временных рядов.
+ */
+@Component
+public class BookingStateObservationConvention extends DefaultServerRequestObservationConvention {
+    private static final String STATE_PARAM = "state";
+    private static final String NONE = "none";
+    private static final String INVALID = "INVALID";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of(STATE_PARAM, state(context)));
+    }
+
+    private static String state(ServerRequestObservationContext context) {
+        String state = context.getCarrier().getParameter(STATE_PARAM);
+        if (state == null) {
+            return NONE;
+        }
+        return Arrays.stream(BookingState.values())
+                .map(Enum::name)
+                .filter(name -> name.equalsIgnoreCase(state.trim()))
+                .findFirst()
+                .orElse(INVALID);
+    }
+}
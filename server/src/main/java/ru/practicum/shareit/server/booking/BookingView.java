@@ -0,0 +1,13 @@
+package ru.practicum.shareit.server.booking;
+
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований. Выбирается конструктором прямо в запросе, поэтому сущности бронирования,
+ * вещи и арендатора не попадают в контекст постоянства и не проверяются на изменения при сбросе.
+ */
+public record BookingView(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                          Long bookerId, String bookerName, Long itemId, String itemName) {
+}
@@ -0,0 +1,283 @@
+package ru.practicum.shareit.server.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.batch.Batches;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.exception.ConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Расписание занятости вещей для проверки пересечения бронирований без запроса к базе.
+ * Расписание вещи загружается при первом бронировании и дальше поддерживается при создании
+ * и отклонении бронирований. Источником истины остаётся ограничение excl_bookings_item_period.
+ * Расписания хранятся в ограниченном кэше и вытесняются, если вещь давно не бронировали. Блокировки вещей
+ * берутся из фиксированного набора и не зависят от кэша, поэтому вытеснение расписания
+ * не позволяет двум потокам одновременно проверять одну вещь.
+ */
+@Slf4j
+@Component
+public class BookingAvailability {
+    private static final List<BookingStatus> ACTIVE = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final String OVERLAP_CONSTRAINT = "excl_bookings_item_period";
+    private static final int LOCK_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, ItemSchedule> schedules;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public BookingAvailability(BookingRepository bookingRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${shareit.booking-availability.max-items:10000}") long maxItems,
+                               @Value("${shareit.booking-availability.expire-after-access:PT10M}")
+                               Duration expireAfterAccess) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Итог резервирования: error равен null, если бронирование сохранено.
+     */
+    public record Reservation(Booking booking, @Nullable RuntimeException error) {
+    }
+
+    /**
+     * Проверяет, что период бронирования свободен, и сохраняет бронирование.
+     * Проверка и сохранение выполняются под блокировкой вещи.
+     */
+    public Booking reserve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemSchedule schedule = schedules.get(itemId, id -> new ItemSchedule());
+            LocalDateTime now = LocalDateTime.now();
+            if (schedule.isLoaded()) {
+                schedule.removeEndedBefore(now);
+            } else {
+                load(schedule, itemId, now);
+            }
+
+            if (schedule.overlaps(booking.getStart(), booking.getEnd())) {
+                // Расписание могло устареть, если бронирование отклонили на другом экземпляре сервера
+                load(schedule, itemId, now);
+                if (schedule.overlaps(booking.getStart(), booking.getEnd())) {
+                    throw new ConflictException("Вещь уже забронирована на эти даты");
+                }
+            }
+
+            Booking saved = save(booking, schedule);
+            schedule.add(new ItemSchedule.Slot(saved.getId(), saved.getStart(), saved.getEnd()));
+            onRollback(() -> invalidate(itemId));
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Пакетный вариант reserve. Бронирования обрабатываются порциями по {@link Batches#CHUNK_SIZE}:
+     * для порции блокируются её вещи в порядке номеров блокировок, расписания загружаются одним запросом,
+     * принятые бронирования сохраняются в отдельной транзакции, и блокировки снимаются до следующей порции.
+     * Ошибка базы в порции отмечается на её записях и не мешает остальным. Результаты возвращаются
+     * в порядке входного списка.
+     */
+    public List<Reservation> reserveAll(List<Booking> bookings) {
+        List<Reservation> reservations = new ArrayList<>(bookings.size());
+        for (List<Booking> chunk : Batches.chunks(bookings, Batches.CHUNK_SIZE)) {
+            reservations.addAll(reserveChunk(chunk));
+        }
+        return reservations;
+    }
+
+    private List<Reservation> reserveChunk(List<Booking> bookings) {
+        List<Long> itemIds = bookings.stream()
+                .map(b -> b.getItem().getId())
+                .distinct()
+                .sorted()
+                .toList();
+        // Блокировки берутся в порядке номеров, чтобы параллельные пакеты не ждали друг друга по кругу
+        List<ReentrantLock> itemLocks = itemIds.stream()
+                .map(BookingAvailability::stripe)
+                .distinct()
+                .sorted()
+                .map(stripe -> locks[stripe])
+                .toList();
+        itemLocks.forEach(ReentrantLock::lock);
+        try {
+            Map<Long, ItemSchedule> locked = new LinkedHashMap<>();
+            itemIds.forEach(id -> locked.put(id, schedules.get(id, key -> new ItemSchedule())));
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, List<ItemSchedule.Slot>> active = new HashMap<>();
+            bookingRepository.findActiveByItemIdIn(itemIds, ACTIVE, now).forEach(b -> active
+                    .computeIfAbsent(b.getItem().getId(), id -> new ArrayList<>())
+                    .add(new ItemSchedule.Slot(b.getId(), b.getStart(), b.getEnd())));
+            locked.forEach((itemId, schedule) -> schedule.load(active.getOrDefault(itemId, List.of())));
+
+            Reservation[] reservations = new Reservation[bookings.size()];
+            List<Integer> accepted = new ArrayList<>();
+            for (int i = 0; i < bookings.size(); i++) {
+                Booking booking = bookings.get(i);
+                ItemSchedule schedule = locked.get(booking.getItem().getId());
+                if (schedule.overlaps(booking.getStart(), booking.getEnd())) {
+                    reservations[i] = new Reservation(booking, new ConflictException("Вещь уже забронирована на эти даты"));
+                } else {
+                    schedule.add(new ItemSchedule.Slot(null, booking.getStart(), booking.getEnd()));
+                    accepted.add(i);
+                }
+            }
+
+            RuntimeException error = saveAll(accepted.stream().map(bookings::get).toList());
+            accepted.forEach(i -> reservations[i] = new Reservation(bookings.get(i), error));
+            return List.of(reservations);
+        } catch (DataAccessException e) {
+            log.error("Не удалось проверить пакет из {} бронирований", bookings.size(), e);
+            return bookings.stream().map(booking -> new Reservation(booking, e)).toList();
+        } finally {
+            // Слоты пакета записаны без id бронирований, поэтому расписания перечитываются при следующем обращении
+            schedules.invalidateAll(itemIds);
+            itemLocks.reversed().forEach(ReentrantLock::unlock);
+        }
+    }
+
+    /**
+     * Освобождает период отклонённого или отменённого бронирования.
+     */
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        afterCommit(() -> {
+            ReentrantLock lock = lockFor(itemId);
+            lock.lock();
+            try {
+                ItemSchedule schedule = schedules.getIfPresent(itemId);
+                if (schedule != null) {
+                    schedule.remove(booking.getId(), booking.getStart());
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private Booking save(Booking booking, ItemSchedule schedule) {
+        try {
+            return bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            log.warn("Пересечение бронирований вещи {} обнаружено базой, расписание будет перезагружено",
+                    booking.getItem().getId());
+            schedule.invalidate();
+            throw new ConflictException("Вещь уже забронирована на эти даты");
+        }
+    }
+
+    @Nullable
+    private RuntimeException saveAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return null;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.saveAll(bookings));
+            return null;
+        } catch (DataAccessException e) {
+            if (e instanceof DataIntegrityViolationException violation && isOverlapViolation(violation)) {
+                log.warn("Пересечение бронирований обнаружено базой при пакетном сохранении {} записей", bookings.size());
+                return new ConflictException("Вещь уже забронирована на эти даты");
+            }
+            log.error("Не удалось сохранить пакет из {} бронирований", bookings.size(), e);
+            return e;
+        }
+    }
+
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+
+    private void load(ItemSchedule schedule, Long itemId, LocalDateTime now) {
+        schedule.load(bookingRepository.findActiveByItemId(itemId, ACTIVE, now).stream()
+                .map(b -> new ItemSchedule.Slot(b.getId(), b.getStart(), b.getEnd()))
+                .toList());
+    }
+
+    private void invalidate(Long itemId) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            schedules.invalidate(itemId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long itemId) {
+        return locks[stripe(itemId)];
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), LOCK_STRIPES);
+    }
+
+    /**
+     * Число расписаний в кэше, для проверки вытеснения.
+     */
+    long cachedSchedules() {
+        schedules.cleanUp();
+        return schedules.estimatedSize();
+    }
+
+    private void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
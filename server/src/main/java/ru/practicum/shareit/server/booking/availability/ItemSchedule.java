@@ -0,0 +1,55 @@
+package ru.practicum.shareit.server.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Занятые периоды [start, end) одной вещи, упорядоченные по началу. Периоды не пересекаются,
+ * поэтому концы упорядочены так же, как начала, и для проверки достаточно одного соседа.
+ * Все методы вызываются под блокировкой вещи в {@link BookingAvailability}.
+ */
+class ItemSchedule {
+    private final TreeMap<LocalDateTime, Slot> slots = new TreeMap<>();
+    private boolean loaded;
+
+    record Slot(Long bookingId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    void load(List<Slot> active) {
+        slots.clear();
+        active.forEach(this::add);
+        loaded = true;
+    }
+
+    void invalidate() {
+        slots.clear();
+        loaded = false;
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Slot> before = slots.lowerEntry(end);
+        return before != null && before.getValue().end().isAfter(start);
+    }
+
+    void add(Slot slot) {
+        slots.merge(slot.start(), slot, (existing, added) -> existing.end().isAfter(added.end()) ? existing : added);
+    }
+
+    void remove(Long bookingId, LocalDateTime start) {
+        slots.computeIfPresent(start, (key, slot) -> slot.bookingId().equals(bookingId) ? null : slot);
+    }
+
+    void removeEndedBefore(LocalDateTime now) {
+        Iterator<Slot> iterator = slots.values().iterator();
+        while (iterator.hasNext() && !iterator.next().end().isAfter(now)) {
+            iterator.remove();
+        }
+    }
+}
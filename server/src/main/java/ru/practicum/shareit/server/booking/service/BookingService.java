@@ -1,5 +1,6 @@
 package ru.practicum.shareit.server.booking.service;
 
+import ru.practicum.shareit.server.batch.BatchResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.model.BookingState;
 
@@ -9,12 +10,14 @@ public interface BookingService {
 
     BookingDto createBooking(BookingDto bookingDto, Long bookerId);
 
+    List<BatchResultDto<BookingDto>> createBookings(List<BookingDto> bookingDtos, Long bookerId);
+
     BookingDto approveBooking(Long bookingId, Long ownerId, boolean approved);
 
     BookingDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingDto> getUserBookings(Long userId, BookingState state, String sortBy, String direction);
+    List<BookingDto> getUserBookings(Long userId, BookingState state, int from, int size, String cursor);
 
-    List<BookingDto> getOwnerBookings(Long ownerId, BookingState state, String sortBy, String direction);
+    List<BookingDto> getOwnerBookings(Long ownerId, BookingState state, int from, int size, String cursor);
 
 }
\ No newline at end of file
@@ -1,66 +1,97 @@
 package ru.practicum.shareit.server.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.batch.BatchResultDto;
+import ru.practicum.shareit.server.cache.EntityCache;
 import ru.practicum.shareit.server.booking.BookingMapper;
+import ru.practicum.shareit.server.booking.availability.BookingAvailability;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.BookingView;
 import ru.practicum.shareit.server.booking.model.BookingState;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.summary.BookingSummaries;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
-import ru.practicum.shareit.server.item.ItemRepository;
 import ru.practicum.shareit.server.item.model.Item;
-import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
+import ru.practicum.shareit.server.pagination.SeekCursor;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
-    private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
     private final BookingMapper bookingMapper;
+    private final EntityCache entityCache;
+    private final BookingAvailability bookingAvailability;
+    private final BookingSummaries bookingSummaries;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
 
     @Override
     public BookingDto createBooking(BookingDto bookingDto, Long bookerId) {
-        User booker = userRepository.findById(bookerId)
+        User booker = entityCache.findUser(bookerId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Item item = entityCache.findItem(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
 
-        if (!item.getAvailable()) {
-            throw new ValidationException("Вещь недоступна для бронирования");
-        }
+        Booking savedBooking = bookingAvailability.reserve(newBooking(bookingDto, booker, item));
+        return bookingMapper.toDto(savedBooking);
+    }
 
-        if (item.getOwner().getId().equals(bookerId)) {
-            throw new ValidationException("Владелец не может бронировать свою вещь");
+    @Override
+    public List<BatchResultDto<BookingDto>> createBookings(List<BookingDto> bookingDtos, Long bookerId) {
+        User booker = entityCache.findUser(bookerId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        Map<Long, Item> items = entityCache.findItems(bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        List<BatchResultDto<BookingDto>> results = new ArrayList<>(Collections.nCopies(bookingDtos.size(), null));
+        List<Booking> candidates = new ArrayList<>();
+        List<Integer> candidateIndexes = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Вещь не найдена");
+                }
+                candidates.add(newBooking(bookingDto, booker, item));
+                candidateIndexes.add(i);
+            } catch (NotFoundException | ValidationException e) {
+                results.set(i, BatchResultDto.failed(i, e));
+            }
         }
 
-        if (bookingDto.getEnd().isBefore(bookingDto.getStart()) ||
-                bookingDto.getEnd().isEqual(bookingDto.getStart())) {
-            throw new ValidationException("Дата окончания бронирования должна быть позже даты начала");
+        List<BookingAvailability.Reservation> reservations = bookingAvailability.reserveAll(candidates);
+        for (int j = 0; j < reservations.size(); j++) {
+            int i = candidateIndexes.get(j);
+            BookingAvailability.Reservation reservation = reservations.get(j);
+            results.set(i, reservation.error() == null
+                    ? BatchResultDto.created(i, bookingMapper.toDto(reservation.booking()))
+                    : BatchResultDto.failed(i, reservation.error()));
         }
-
-        Booking booking = Booking.builder()
-                .start(bookingDto.getStart())
-                .end(bookingDto.getEnd())
-                .item(item)
-                .booker(booker)
-                .status(BookingStatus.WAITING)
-                .build();
-
-        Booking savedBooking = bookingRepository.save(booking);
-        return bookingMapper.toDto(savedBooking);
+        return results;
     }
 
     @Override
+    @Transactional
     public BookingDto approveBooking(Long bookingId, Long ownerId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
@@ -75,10 +106,18 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
+        if (approved) {
+            entityCache.evictFirstApprovedBookingEnd(updatedBooking.getBooker().getId(),
+                    updatedBooking.getItem().getId());
+            bookingSummaries.refresh(List.of(updatedBooking.getItem().getId()), LocalDateTime.now());
+        } else {
+            bookingAvailability.release(updatedBooking);
+        }
         return bookingMapper.toDto(updatedBooking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDto getBookingById(Long bookingId, Long userId) {
         Booking booking = bookingRepository.findByIdWithRelations(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
@@ -92,21 +131,25 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getUserBookings(Long userId, BookingState state, String sortBy, String direction) {
-        userRepository.findById(userId)
+    @Transactional(readOnly = true)
+    public List<BookingDto> getUserBookings(Long userId, BookingState state, int from, int size, String cursor) {
+        entityCache.findUser(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        Sort sort = Sort.by(Sort.Direction.fromString(direction), sortBy);
+        SeekCursor seek = cursor != null ? SeekCursor.decode(cursor) : SeekCursor.FIRST;
+        Pageable page = toPageable(from, size, cursor);
         LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findByBookerId(userId, sort);
-            case CURRENT -> bookingRepository.findCurrentByBookerId(userId, now, sort);
-            case PAST -> bookingRepository.findByBookerIdAndEndBefore(userId, now, sort);
-            case FUTURE -> bookingRepository.findByBookerIdAndStartAfter(userId, now, sort);
+        LocalDateTime seekStart = seek.timestamp();
+        Long seekId = seek.id();
+
+        List<BookingView> bookings = switch (state) {
+            case ALL -> bookingRepository.findByBookerId(userId, seekStart, seekId, page);
+            case CURRENT -> bookingRepository.findCurrentByBookerId(userId, now, seekStart, seekId, page);
+            case PAST -> bookingRepository.findByBookerIdAndEndBefore(userId, now, seekStart, seekId, page);
+            case FUTURE -> bookingRepository.findByBookerIdAndStartAfter(userId, now, seekStart, seekId, page);
             case WAITING, REJECTED -> {
                 BookingStatus status = BookingStatus.valueOf(state.name());
-                yield bookingRepository.findByBookerIdAndStatus(userId, status, sort);
+                yield bookingRepository.findByBookerIdAndStatus(userId, status, seekStart, seekId, page);
             }
             default -> throw new IllegalArgumentException("Неизвестный статус: " + state);
         };
@@ -117,21 +160,25 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(Long ownerId, BookingState state, String sortBy, String direction) {
-        userRepository.findById(ownerId)
+    @Transactional(readOnly = true)
+    public List<BookingDto> getOwnerBookings(Long ownerId, BookingState state, int from, int size, String cursor) {
+        entityCache.findUser(ownerId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        Sort sort = Sort.by(Sort.Direction.fromString(direction), sortBy);
+        SeekCursor seek = cursor != null ? SeekCursor.decode(cursor) : SeekCursor.FIRST;
+        Pageable page = toPageable(from, size, cursor);
         LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findByItemOwnerId(ownerId, sort);
-            case CURRENT -> bookingRepository.findCurrentByOwnerId(ownerId, now, sort);
-            case PAST -> bookingRepository.findByItemOwnerIdAndEndBefore(ownerId, now, sort);
-            case FUTURE -> bookingRepository.findByItemOwnerIdAndStartAfter(ownerId, now, sort);
+        LocalDateTime seekStart = seek.timestamp();
+        Long seekId = seek.id();
+
+        List<BookingView> bookings = switch (state) {
+            case ALL -> bookingRepository.findByItemOwnerId(ownerId, seekStart, seekId, page);
+            case CURRENT -> bookingRepository.findCurrentByOwnerId(ownerId, now, seekStart, seekId, page);
+            case PAST -> bookingRepository.findByItemOwnerIdAndEndBefore(ownerId, now, seekStart, seekId, page);
+            case FUTURE -> bookingRepository.findByItemOwnerIdAndStartAfter(ownerId, now, seekStart, seekId, page);
             case WAITING, REJECTED -> {
                 BookingStatus status = BookingStatus.valueOf(state.name());
-                yield bookingRepository.findByItemOwnerIdAndStatus(ownerId, status, sort);
+                yield bookingRepository.findByItemOwnerIdAndStatus(ownerId, status, seekStart, seekId, page);
             }
             default -> throw new IllegalArgumentException("Неизвестный статус: " + state);
         };
@@ -140,4 +187,32 @@ public class BookingServiceImpl implements BookingService {
                 .map(bookingMapper::toDto)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private Booking newBooking(BookingDto bookingDto, User booker, Item item) {
+        if (!item.getAvailable()) {
+            throw new ValidationException("Вещь недоступна для бронирования");
+        }
+
+        if (item.getOwner().getId().equals(booker.getId())) {
+            throw new ValidationException("Владелец не может бронировать свою вещь");
+        }
+
+        if (bookingDto.getEnd().isBefore(bookingDto.getStart()) ||
+                bookingDto.getEnd().isEqual(bookingDto.getStart())) {
+            throw new ValidationException("Дата окончания бронирования должна быть позже даты начала");
+        }
+
+        return Booking.builder()
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd())
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private Pageable toPageable(int from, int size, String cursor) {
+        // При переходе по курсору смещение уже учтено в условии на (start, id)
+        return new OffsetPageRequest(cursor != null ? 0 : from, size, NEWEST_FIRST);
+    }
+}
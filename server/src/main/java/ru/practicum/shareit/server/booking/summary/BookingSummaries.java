@@ -0,0 +1,181 @@
+package ru.practicum.shareit.server.booking.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.batch.Batches;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Поддерживает таблицу item_booking_summary, из которой владелец получает последнее и ближайшее бронирования вещей.
+ * Сводка пересчитывается при подтверждении бронирования в той же транзакции, а по расписанию
+ * пересчитываются сводки, у которых наступил validUntil. Отсутствующие и устаревшие сводки
+ * при чтении вычисляются по таблице бронирований, поэтому ответ не зависит от того, успело ли отработать расписание.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingSummaries {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Вещи владельца вместе с актуальными сводками.
+     */
+    public List<ItemWithBookingSummary> findByOwnerId(Long ownerId, LocalDateTime now) {
+        List<ItemWithBookingSummary> rows = summaryRepository.findItemsByOwnerId(ownerId);
+        List<Long> stale = rows.stream()
+                .filter(row -> row.summary() == null || row.summary().isExpired(now))
+                .map(row -> row.item().getId())
+                .toList();
+        if (stale.isEmpty()) {
+            return rows;
+        }
+        Map<Long, ItemBookingSummary> computed = compute(stale, now, false);
+        return rows.stream()
+                .map(row -> computed.containsKey(row.item().getId())
+                        ? new ItemWithBookingSummary(row.item(), computed.get(row.item().getId()))
+                        : row)
+                .toList();
+    }
+
+    public ItemBookingSummary findByItemId(Long itemId, LocalDateTime now) {
+        return summaryRepository.findById(itemId)
+                .filter(summary -> !summary.isExpired(now))
+                .orElseGet(() -> compute(List.of(itemId), now, false).get(itemId));
+    }
+
+    /**
+     * Пересчитывает и сохраняет сводки вещей. Вызывается внутри транзакции: строки вещей блокируются,
+     * чтобы параллельные подтверждения и пересчёт по расписанию не перезаписывали друг друга.
+     */
+    public void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        List<Long> lockedIds = itemRepository.lockByIdIn(itemIds).stream()
+                .map(Item::getId)
+                .toList();
+        if (lockedIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemBookingSummary> stored = summaryRepository.findAllById(lockedIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        compute(lockedIds, now, true).forEach((itemId, summary) -> {
+            ItemBookingSummary target = stored.get(itemId);
+            if (target == null) {
+                summaryRepository.save(summary);
+                return;
+            }
+            target.setLastBookingId(summary.getLastBookingId());
+            target.setLastBookerId(summary.getLastBookerId());
+            target.setLastStart(summary.getLastStart());
+            target.setLastEnd(summary.getLastEnd());
+            target.setNextBookingId(summary.getNextBookingId());
+            target.setNextBookerId(summary.getNextBookerId());
+            target.setNextStart(summary.getNextStart());
+            target.setNextEnd(summary.getNextEnd());
+            target.setValidUntil(summary.getValidUntil());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-forward-delay:PT1M}",
+            initialDelayString = "${shareit.booking-summary.roll-forward-delay:PT1M}")
+    public void rollForward() {
+        rollForward(LocalDateTime.now());
+    }
+
+    /**
+     * Пересчитывает сводки, срок которых истёк к моменту now: ближайшее бронирование началось
+     * или текущее закончилось и стало последним.
+     */
+    public int rollForward(LocalDateTime now) {
+        int refreshed = 0;
+        List<Long> expired = summaryRepository.findExpiredItemIds(now, PageRequest.of(0, Batches.CHUNK_SIZE));
+        while (!expired.isEmpty()) {
+            List<Long> chunk = expired;
+            transactionTemplate.executeWithoutResult(status -> refresh(chunk, now));
+            refreshed += chunk.size();
+            expired = chunk.size() < Batches.CHUNK_SIZE ? List.of()
+                    : summaryRepository.findExpiredItemIds(now, PageRequest.of(0, Batches.CHUNK_SIZE));
+        }
+        if (refreshed > 0) {
+            log.debug("Пересчитано сводок бронирований: {}", refreshed);
+        }
+        return refreshed;
+    }
+
+    /**
+     * Заполняет сводки вещей, созданных до появления таблицы.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int filled = 0;
+        List<Long> missing = summaryRepository.findItemIdsWithoutSummary(PageRequest.of(0, Batches.CHUNK_SIZE));
+        while (!missing.isEmpty()) {
+            List<Long> chunk = missing;
+            transactionTemplate.executeWithoutResult(status -> refresh(chunk, LocalDateTime.now()));
+            filled += chunk.size();
+            missing = chunk.size() < Batches.CHUNK_SIZE ? List.of()
+                    : summaryRepository.findItemIdsWithoutSummary(PageRequest.of(0, Batches.CHUNK_SIZE));
+        }
+        if (filled > 0) {
+            log.info("Заполнено сводок бронирований: {}", filled);
+        }
+    }
+
+    /**
+     * Бронирования удалённого пользователя исчезают вместе с ним, поэтому ссылающиеся на них сводки
+     * помечаются устаревшими и пересчитываются при чтении и по расписанию.
+     */
+    public void onBookerDeleted(Long bookerId) {
+        transactionTemplate.executeWithoutResult(status ->
+                summaryRepository.expireByBookerId(bookerId, LocalDateTime.now()));
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now, boolean withExpiry) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        itemIds.forEach(id -> summaries.put(id, ItemBookingSummary.builder().itemId(id).build()));
+        for (List<Long> chunk : Batches.chunks(List.copyOf(itemIds), Batches.CHUNK_SIZE)) {
+            firstByItemId(bookingRepository.findLastBookingsByItemIds(chunk, BookingStatus.APPROVED, now))
+                    .forEach((itemId, booking) -> summaries.get(itemId).setLast(booking));
+            firstByItemId(bookingRepository.findNextBookingsByItemIds(chunk, BookingStatus.APPROVED, now))
+                    .forEach((itemId, booking) -> summaries.get(itemId).setNext(booking));
+            if (withExpiry) {
+                bookingRepository.findEarliestEndsByItemIds(chunk, BookingStatus.APPROVED, now)
+                        .forEach(end -> {
+                            ItemBookingSummary summary = summaries.get(end.itemId());
+                            summary.setValidUntil(Stream.of(summary.getNextStart(), end.end())
+                                    .filter(Objects::nonNull)
+                                    .min(LocalDateTime::compareTo)
+                                    .orElseThrow());
+                        });
+            }
+        }
+        return summaries;
+    }
+
+    private static Map<Long, Booking> firstByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+}
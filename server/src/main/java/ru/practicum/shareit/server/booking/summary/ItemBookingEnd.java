@@ -0,0 +1,6 @@
+package ru.practicum.shareit.server.booking.summary;
+
+import java.time.LocalDateTime;
+
+public record ItemBookingEnd(Long itemId, LocalDateTime end) {
+}
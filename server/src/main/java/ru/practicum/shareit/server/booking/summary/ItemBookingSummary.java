@@ -0,0 +1,71 @@
+package ru.practicum.shareit.server.booking.summary;
+
+import jakarta.persistence.*;
+import lombok.*;
+import ru.practicum.shareit.server.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее завершённое и ближайшее будущее подтверждённые бронирования вещи.
+ * Сводка верна до момента validUntil: тогда начинается ближайшее бронирование или заканчивается текущее.
+ * Пустой validUntil означает, что подтверждённых бронирований впереди нет.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    public boolean isExpired(LocalDateTime now) {
+        return validUntil != null && !validUntil.isAfter(now);
+    }
+
+    void setLast(Booking booking) {
+        lastBookingId = booking != null ? booking.getId() : null;
+        lastBookerId = booking != null ? booking.getBooker().getId() : null;
+        lastStart = booking != null ? booking.getStart() : null;
+        lastEnd = booking != null ? booking.getEnd() : null;
+    }
+
+    void setNext(Booking booking) {
+        nextBookingId = booking != null ? booking.getId() : null;
+        nextBookerId = booking != null ? booking.getBooker().getId() : null;
+        nextStart = booking != null ? booking.getStart() : null;
+        nextEnd = booking != null ? booking.getEnd() : null;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.server.booking.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("SELECT new ru.practicum.shareit.server.booking.summary.ItemWithBookingSummary(i, s) FROM Item i " +
+            "LEFT JOIN ItemBookingSummary s ON s.itemId = i.id WHERE i.owner.id = :ownerId")
+    List<ItemWithBookingSummary> findItemsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.validUntil <= :now ORDER BY s.validUntil")
+    List<Long> findExpiredItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT i.id FROM Item i WHERE NOT EXISTS " +
+            "(SELECT s.itemId FROM ItemBookingSummary s WHERE s.itemId = i.id) ORDER BY i.id")
+    List<Long> findItemIdsWithoutSummary(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s SET s.validUntil = :now " +
+            "WHERE s.lastBookerId = :bookerId OR s.nextBookerId = :bookerId")
+    int expireByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.server.booking.summary;
+
+import ru.practicum.shareit.server.item.model.Item;
+
+public record ItemWithBookingSummary(Item item, ItemBookingSummary summary) {
+}
@@ -0,0 +1,275 @@
+package ru.practicum.shareit.server.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.batch.Batches;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кэш пользователей и вещей перед findById. В кэше лежат неизменяемые снимки,
+ * а вызывающий код каждый раз получает новый экземпляр сущности.
+ * Сущности из кэша годятся для проверок и ссылок в новых записях; изменять их нельзя,
+ * для обновления сущность загружается из репозитория, а запись в кэше сбрасывается.
+ * Здесь же кэшируется право пользователя оставить отзыв на вещь.
+ * <p>
+ * Каждый сброс записи увеличивает поколение её ключа. Загрузка запоминает поколение до запроса к базе
+ * и кладёт результат в кэш, только если поколение не изменилось: снимок, прочитанный до commit
+ * параллельного обновления, в кэш не попадёт, даже если читающая транзакция завершится позже.
+ * Прочитанное с реплики в кэш не кладётся: отставший снимок пережил бы сброс записи при обновлении.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCache {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String COMMENT_ELIGIBILITY = "commentEligibility";
+    private static final int STRIPES = 1024;
+
+    private final CacheManager cacheManager;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingRepository bookingRepository;
+    // Поколения ключей по полосам: изменяются под блокировкой полосы вместе со сбросом записи
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final ReentrantLock[] locks = newLocks();
+
+    public Optional<User> findUser(Long userId) {
+        Cache cache = cache(USERS);
+        CachedUser cached = cache.get(userId, CachedUser.class);
+        if (cached != null) {
+            return Optional.of(cached.toEntity());
+        }
+        long generation = generation(cache, userId);
+        Optional<User> user = userRepository.findById(userId);
+        user.ifPresent(u -> put(cache, userId, CachedUser.of(u), generation));
+        return user;
+    }
+
+    public Optional<Item> findItem(Long itemId) {
+        Cache cache = cache(ITEMS);
+        CachedItem cached = cache.get(itemId, CachedItem.class);
+        if (cached != null) {
+            return Optional.of(toEntity(cached));
+        }
+        long generation = generation(cache, itemId);
+        Optional<Item> item = itemRepository.findById(itemId);
+        item.ifPresent(i -> put(cache, itemId, CachedItem.of(i), generation));
+        return item;
+    }
+
+    /**
+     * Загружает вещи, которых нет в кэше, запросами по набору id. Отсутствующих вещей в результате нет.
+     */
+    public Map<Long, Item> findItems(Collection<Long> itemIds) {
+        Cache cache = cache(ITEMS);
+        Map<Long, Item> items = new HashMap<>();
+        Map<Long, Long> missing = new HashMap<>();
+        for (Long itemId : itemIds) {
+            CachedItem cached = cache.get(itemId, CachedItem.class);
+            if (cached != null) {
+                items.put(itemId, toEntity(cached));
+            } else {
+                missing.put(itemId, generation(cache, itemId));
+            }
+        }
+        for (List<Long> chunk : Batches.chunks(List.copyOf(missing.keySet()), Batches.CHUNK_SIZE)) {
+            for (Item item : itemRepository.findAllById(chunk)) {
+                items.put(item.getId(), item);
+                put(cache, item.getId(), CachedItem.of(item), missing.get(item.getId()));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Окончание самого раннего подтверждённого бронирования вещи пользователем: после этого момента
+     * он может оставить отзыв, и проверка переключается сама, без обращения к базе.
+     * Отсутствие бронирования тоже кэшируется и сбрасывается при подтверждении нового бронирования.
+     */
+    public Optional<LocalDateTime> findFirstApprovedBookingEnd(Long bookerId, Long itemId) {
+        Cache cache = cache(COMMENT_ELIGIBILITY);
+        BookerItem key = new BookerItem(bookerId, itemId);
+        CachedBookingEnd cached = cache.get(key, CachedBookingEnd.class);
+        if (cached != null) {
+            return Optional.ofNullable(cached.end());
+        }
+        long generation = generation(cache, key);
+        Optional<LocalDateTime> end = bookingRepository.findFirstEndByBookerIdAndItemIdAndStatus(
+                bookerId, itemId, BookingStatus.APPROVED);
+        put(cache, key, new CachedBookingEnd(end.orElse(null)), generation);
+        return end;
+    }
+
+    public void evictFirstApprovedBookingEnd(Long bookerId, Long itemId) {
+        evict(cache(COMMENT_ELIGIBILITY), new BookerItem(bookerId, itemId));
+    }
+
+    public void evictUser(Long userId) {
+        evict(cache(USERS), userId);
+    }
+
+    public void evictItem(Long itemId) {
+        evict(cache(ITEMS), itemId);
+    }
+
+    public void evictAllItems() {
+        Cache cache = cache(ITEMS);
+        clear(cache);
+        afterCompletion(() -> clear(cache));
+    }
+
+    private Item toEntity(CachedItem cached) {
+        return Item.builder()
+                .id(cached.id())
+                .name(cached.name())
+                .description(cached.description())
+                .available(cached.available())
+                .owner(userRepository.getReferenceById(cached.ownerId()))
+                .request(cached.requestId() != null ? itemRequestRepository.getReferenceById(cached.requestId()) : null)
+                .build();
+    }
+
+    // Внутри транзакции прочитанная запись может быть ещё не зафиксирована, поэтому в кэш она попадает только после commit
+    private void put(Cache cache, Object key, Object value, long generation) {
+        if (ReplicaRoutingDataSource.isCurrentTransactionOnReplica()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putIfCurrent(cache, key, value, generation);
+                }
+            });
+        } else {
+            putIfCurrent(cache, key, value, generation);
+        }
+    }
+
+    private void putIfCurrent(Cache cache, Object key, Object value, long generation) {
+        int stripe = stripe(cache, key);
+        locks[stripe].lock();
+        try {
+            if (generations.get(stripe) == generation) {
+                cache.put(key, value);
+            }
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    private void evict(Cache cache, Object key) {
+        evictNow(cache, key);
+        afterCompletion(() -> evictNow(cache, key));
+    }
+
+    private void evictNow(Cache cache, Object key) {
+        int stripe = stripe(cache, key);
+        locks[stripe].lock();
+        try {
+            generations.incrementAndGet(stripe);
+            cache.evict(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    // Полосы блокируются по возрастанию номера, как и в BookingAvailability.reserveAll
+    private void clear(Cache cache) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                generations.incrementAndGet(stripe);
+            }
+            cache.clear();
+        } finally {
+            for (int stripe = STRIPES - 1; stripe >= 0; stripe--) {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    private long generation(Cache cache, Object key) {
+        return generations.get(stripe(cache, key));
+    }
+
+    private static int stripe(Cache cache, Object key) {
+        return Math.floorMod(31 * cache.getName().hashCode() + key.hashCode(), STRIPES);
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    // Пока транзакция не завершена, параллельный запрос может положить в кэш старую версию записи,
+    // поэтому после завершения транзакции запись сбрасывается повторно
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Кэш " + name + " не настроен");
+        }
+        return cache;
+    }
+
+    private record CachedUser(Long id, String name, String email) {
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getName(), user.getEmail());
+        }
+
+        User toEntity() {
+            return User.builder().id(id).name(name).email(email).build();
+        }
+    }
+
+    private record CachedItem(Long id, String name, String description, Boolean available,
+                              Long ownerId, Long requestId) {
+        static CachedItem of(Item item) {
+            return new CachedItem(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getOwner().getId(), item.getRequest() != null ? item.getRequest().getId() : null);
+        }
+    }
+
+    private record BookerItem(Long bookerId, Long itemId) {
+    }
+
+    private record CachedBookingEnd(LocalDateTime end) {
+    }
+}
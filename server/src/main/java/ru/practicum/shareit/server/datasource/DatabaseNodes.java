@@ -0,0 +1,58 @@
+package ru.practicum.shareit.server.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Пулы основной базы и реплик. Реплики проверяются по расписанию запросом отставания,
+ * состояние каждой видно в метриках shareit.datasource.replica.available и shareit.datasource.replica.lag.
+ */
+public class DatabaseNodes implements AutoCloseable {
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public DatabaseNodes(HikariDataSource primary, List<Replica> replicas, String lagQuery, Duration maxLag,
+                         MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        for (Replica replica : this.replicas) {
+            Gauge.builder("shareit.datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("Реплика принимает транзакции только для чтения")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("shareit.datasource.replica.lag", replica, Replica::getLagSeconds)
+                    .description("Отставание реплики по последней проверке")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    public HikariDataSource primary() {
+        return primary;
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replicas.check-interval:PT5S}")
+    public void check() {
+        replicas.forEach(replica -> replica.check(lagQuery, maxLag));
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+        primary.close();
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.server.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Пул соединений реплики и результат последней проверки: доступна ли она и насколько отстаёт от основной базы.
+ */
+@Slf4j
+@Getter
+public class Replica {
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile boolean available;
+    private volatile double lagSeconds = Double.NaN;
+
+    Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Выполняет запрос отставания; реплика исключается из чтения, если запрос не выполнился
+     * или отставание больше maxLag.
+     */
+    void check(String lagQuery, Duration maxLag) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, dataSource.getValidationTimeout() / 1000));
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+            }
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+                update(false, "отставание " + lagSeconds + " с больше допустимого " + maxLag.toSeconds() + " с");
+            } else {
+                update(true, null);
+            }
+        } catch (SQLException e) {
+            markDown(e);
+        }
+    }
+
+    void markDown(SQLException e) {
+        lagSeconds = Double.NaN;
+        update(false, e.getMessage());
+    }
+
+    private void update(boolean nowAvailable, String reason) {
+        if (available && !nowAvailable) {
+            log.warn("Реплика {} исключена из чтения: {}", name, reason);
+        } else if (!available && nowAvailable) {
+            log.info("Реплика {} принимает чтение", name);
+        }
+        available = nowAvailable;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.server.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Включается, когда заданы адреса реплик в shareit.datasource.replicas.urls, и заменяет источник данных
+ * Spring Boot. Основной пул строится по spring.datasource.*, пулы реплик — по тем же учётным данным
+ * и настройкам spring.datasource.hikari.*, но с соединениями только для чтения.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "shareit.datasource.replicas.urls")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    public DatabaseNodes databaseNodes(DataSourceProperties properties, Environment environment,
+                                       ObjectProvider<MeterRegistry> meterRegistry,
+                                       @Value("${shareit.datasource.replicas.urls}") List<String> urls,
+                                       @Value("${shareit.datasource.replicas.lag-query}") String lagQuery,
+                                       @Value("${shareit.datasource.replicas.max-lag:PT10S}") Duration maxLag,
+                                       @Value("${shareit.datasource.replicas.connection-timeout:PT1S}")
+                                       Duration connectionTimeout) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        HikariDataSource primary = pool(properties, environment, registry, properties.determineUrl(), "primary");
+
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + i;
+            HikariDataSource replica = pool(properties, environment, registry, urls.get(i), name);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Недоступная при старте реплика не мешает запуску и подключается, когда поднимется
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(new Replica(name, replica));
+        }
+        return new DatabaseNodes(primary, replicas, lagQuery, maxLag, registry);
+    }
+
+    @Bean
+    public DataSource dataSource(DatabaseNodes nodes, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(nodes, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)));
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment,
+                                         MeterRegistry registry, String url, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        return pool;
+    }
+}
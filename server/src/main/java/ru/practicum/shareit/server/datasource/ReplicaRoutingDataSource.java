@@ -0,0 +1,108 @@
+package ru.practicum.shareit.server.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Отдаёт транзакциям только для чтения соединения реплик по кругу, всем остальным — соединения основной базы.
+ * Недоступные и отстающие реплики пропускаются; если подходящей нет или соединение с репликой не удалось
+ * получить, чтение идёт на основную базу. Каждое решение считается в shareit.datasource.routing
+ * с тегами target и route (write, read, fallback).
+ * <p>
+ * Признак read-only выставляется после того, как JpaTransactionManager начал транзакцию,
+ * поэтому источник используется только через LazyConnectionDataSourceProxy, который берёт
+ * соединение при первом запросе.
+ * <p>
+ * Транзакция, получившая соединение реплики, помечается до своего завершения: прочитанные в ней данные
+ * могут отставать от основной базы, и {@link #isCurrentTransactionOnReplica()} позволяет не сохранять их в кэшах.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private static final String PRIMARY = "primary";
+    private static final Object REPLICA_READ = new Object();
+
+    private final DatabaseNodes nodes;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DatabaseNodes nodes, MeterRegistry meterRegistry) {
+        this.nodes = nodes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary("write");
+        }
+        List<Replica> replicas = nodes.replicas();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                count(replica.getName(), "read");
+                markReplicaRead(replica.getName());
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Не удалось получить соединение реплики {}", replica.getName(), e);
+                replica.markDown(e);
+            }
+        }
+        return primary("fallback");
+    }
+
+    /**
+     * Читает ли текущая транзакция с реплики.
+     */
+    public static boolean isCurrentTransactionOnReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Учётные данные задаются в настройках пулов");
+    }
+
+    private Connection primary(String route) throws SQLException {
+        Connection connection = nodes.primary().getConnection();
+        count(PRIMARY, route);
+        return connection;
+    }
+
+    private static void markReplicaRead(String replica) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ, replica);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+            }
+        });
+    }
+
+    private void count(String target, String route) {
+        Counter.builder("shareit.datasource.routing")
+                .description("Выбор базы для соединения")
+                .tag("target", target)
+                .tag("route", route)
+                .register(meterRegistry)
+                .increment();
+    }
+}
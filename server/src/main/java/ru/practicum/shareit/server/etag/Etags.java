@@ -0,0 +1,34 @@
+package ru.practicum.shareit.server.etag;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Сильный ETag по содержимому ответа. Хеш считается по toString() DTO, а не по готовому JSON:
+ * у DTO с @Data он включает все поля, вложенные DTO и списки. Если ETag совпал с If-None-Match,
+ * HttpEntityMethodProcessor отвечает 304 без тела, и JSON не формируется.
+ */
+public final class Etags {
+
+    private Etags() {
+    }
+
+    /**
+     * Ответ 200 с ETag и Cache-Control: no-cache, чтобы клиент перепроверял ответ при каждом опросе.
+     * В varyBy передаются заголовки запроса, от которых зависит содержимое, например X-Sharer-User-Id.
+     */
+    public static <T> ResponseEntity<T> ok(T body, String... varyBy) {
+        return ResponseEntity.ok()
+                .eTag(of(body))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(varyBy)
+                .body(body);
+    }
+
+    static String of(Object body) {
+        return "\"" + DigestUtils.md5DigestAsHex(String.valueOf(body).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.server.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
@@ -10,9 +12,11 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId")
+    List<Comment> findByItemId(@Param("itemId") Long itemId);
 
-    List<Comment> findByItemIn(List<Item> items);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item IN :items")
+    List<Comment> findByItemIn(@Param("items") List<Item> items);
 
     List<Comment> findByAuthorId(Long authorId);
 
@@ -2,7 +2,10 @@ package ru.practicum.shareit.server.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.batch.BatchResultDto;
+import ru.practicum.shareit.server.etag.Etags;
 import ru.practicum.shareit.server.item.dto.CommentDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemForOwnerDto;
@@ -26,6 +29,13 @@ public class ItemController {
         return itemService.createItem(itemDto, ownerId);
     }
 
+    @PostMapping("/batch")
+    public List<BatchResultDto<ItemDto>> createItems(@RequestBody List<ItemDto> itemDtos,
+                                                     @RequestHeader(USER_ID_HEADER) Long ownerId) {
+        log.info("Пакетное создание вещей: владелец={}, количество={}", ownerId, itemDtos.size());
+        return itemService.createItems(itemDtos, ownerId);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId,
                               @RequestBody ItemDto itemDto,
@@ -35,10 +45,10 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingsDto getItemById(@PathVariable Long itemId,
-                                           @RequestHeader(USER_ID_HEADER) Long userId) {
+    public ResponseEntity<ItemWithBookingsDto> getItemById(@PathVariable Long itemId,
+                                                           @RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Получение вещи: ID={}, пользователь={}", itemId, userId);
-        return itemService.getItemById(itemId, userId);
+        return Etags.ok(itemService.getItemById(itemId, userId), USER_ID_HEADER);
     }
 
     @GetMapping
@@ -49,9 +59,11 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam String text,
-                                     @RequestHeader(USER_ID_HEADER) Long userId) {
-        log.info("Поиск вещей: текст='{}', пользователь={}", text, userId);
-        return itemService.searchItems(text, userId);
+                                     @RequestHeader(USER_ID_HEADER) Long userId,
+                                     @RequestParam(defaultValue = "0") Integer from,
+                                     @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Поиск вещей: текст='{}', пользователь={}, from={}, size={}", text, userId, from, size);
+        return itemService.searchItems(text, userId, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,24 +1,50 @@
 package ru.practicum.shareit.server.item;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.server.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String VIEW = "SELECT new ru.practicum.shareit.server.item.ItemView(" +
+            "i.id, i.name, i.description, i.available, i.request.id) FROM Item i ";
 
     List<Item> findByOwnerId(Long ownerId);
 
-    @Query("SELECT i FROM Item i " +
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(VIEW +
             "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) " +
             "OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
-            "AND i.available = true")
-    List<Item> searchAvailableItems(@Param("text") String text);
+            "AND i.available = true " +
+            "ORDER BY CASE " +
+            "WHEN UPPER(i.name) = UPPER(:text) THEN 0 " +
+            "WHEN UPPER(i.name) LIKE UPPER(CONCAT(:text, '%')) THEN 1 " +
+            "WHEN UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) THEN 2 " +
+            "ELSE 3 END, i.id")
+    List<ItemView> searchAvailableItems(@Param("text") String text, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.request.id = :requestId ORDER BY i.id")
+    List<ItemView> findByRequestId(@Param("requestId") Long requestId);
+
+    @Query(VIEW + "WHERE i.request.id IN :requestIds ORDER BY i.id")
+    List<ItemView> findByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
 
-    List<Item> findByRequestId(Long requestId);
+    List<Item> findByAvailableTrue();
 
 }
\ No newline at end of file
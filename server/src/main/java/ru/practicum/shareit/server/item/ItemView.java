@@ -0,0 +1,7 @@
+package ru.practicum.shareit.server.item;
+
+/**
+ * Вещь в списках поиска и ответов на запросы: только поля ItemDto, без загрузки сущности.
+ */
+public record ItemView(Long id, String name, String description, Boolean available, Long requestId) {
+}
@@ -4,6 +4,8 @@ import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.server.booking.dto.BookingInfoDto;
 
+import java.util.List;
+
 @Data
 @Builder
 public class ItemForOwnerDto {
@@ -13,4 +15,5 @@ public class ItemForOwnerDto {
     private Boolean available;
     private BookingInfoDto lastBooking;
     private BookingInfoDto nextBooking;
+    private List<CommentDto> comments;
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.server.item.search;
+
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<ItemDto> search(String text, int from, int size);
+
+    /**
+     * Вызывается в транзакции, сохранившей вещь; строка уже существовавшей вещи должна быть
+     * заблокирована этой транзакцией до commit.
+     */
+    default void onItemSaved(Item item) {
+    }
+
+    default void onOwnerDeleted(Long ownerId) {
+    }
+
+}
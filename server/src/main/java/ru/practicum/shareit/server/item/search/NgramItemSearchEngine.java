@@ -0,0 +1,285 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.item.ItemMapper;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания доступных вещей.
+ * Кандидаты находятся пересечением списков триграмм запроса и затем проверяются
+ * на вхождение подстроки, поэтому результат совпадает с SQL-поиском.
+ * Изменения, сделанные внутри транзакции, попадают в индекс после её commit, а при откате не попадают.
+ * <p>
+ * Номер изменения выдаётся до commit, пока строка вещи заблокирована транзакцией, поэтому номера
+ * идут в порядке commit и запоздавший снимок вещи не перетирает более новый. Изменения, пришедшие
+ * во время перестроения, повторяются поверх прочитанного снимка.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class NgramItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<Long, Long> itemVersions = new HashMap<>();
+    private final Set<Long> deletedOwners = new HashSet<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Change> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<IndexedItem> snapshot;
+        try {
+            // Транзакция на запись, чтобы снимок читался с основной базы, а не с отстающей реплики
+            snapshot = transactionTemplate.execute(status -> itemRepository.findByAvailableTrue().stream()
+                    .map(NgramItemSearchEngine::index)
+                    .toList());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            items.clear();
+            snapshot.stream()
+                    .filter(indexed -> !deletedOwners.contains(indexed.ownerId()))
+                    .forEach(this::add);
+            pending.values().forEach(this::apply);
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен: вещей={}, триграмм={}", snapshot.size(), postings.size());
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        // Снимок вещи строится сразу: после commit сущность может быть уже недоступна
+        Change change = new Change(item.getId(), versions.incrementAndGet(),
+                Boolean.TRUE.equals(item.getAvailable()) ? index(item) : null);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (change.version() < itemVersions.getOrDefault(change.itemId(), 0L)) {
+                    return;
+                }
+                itemVersions.put(change.itemId(), change.version());
+                apply(change);
+                if (pending != null) {
+                    pending.put(change.itemId(), change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void onOwnerDeleted(Long ownerId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                deletedOwners.add(ownerId);
+                items.values().stream()
+                        .filter(indexed -> indexed.ownerId().equals(ownerId))
+                        .map(indexed -> indexed.item().getId())
+                        .toList()
+                        .forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = normalize(text);
+        List<Match> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(query)) {
+                IndexedItem indexed = items.get(id);
+                int rank = indexed.rank(query);
+                if (rank >= 0) {
+                    matches.add(new Match(rank, indexed.item()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Match::rank).thenComparing(match -> match.item().getId()))
+                .skip(from)
+                .limit(size)
+                .map(Match::item)
+                .toList();
+    }
+
+    int indexedItemCount() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidates(String query) {
+        if (query.length() < GRAM) {
+            return items.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        long[] candidates = lists.getFirst().toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainIn(candidates, count);
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private static IndexedItem index(Item item) {
+        String name = normalize(item.getName());
+        String description = normalize(item.getDescription());
+        Set<String> grams = grams(name);
+        grams.addAll(grams(description));
+        return new IndexedItem(ItemMapper.toItemDto(item), item.getOwner().getId(), name, description, grams);
+    }
+
+    private void add(IndexedItem indexed) {
+        Long itemId = indexed.item().getId();
+        items.put(itemId, indexed);
+        for (String gram : indexed.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(itemId);
+        }
+    }
+
+    private void apply(Change change) {
+        remove(change.itemId());
+        if (change.indexed() != null && !deletedOwners.contains(change.indexed().ownerId())) {
+            add(change.indexed());
+        }
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem indexed = items.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        for (String gram : indexed.grams()) {
+            PostingList list = postings.get(gram);
+            list.remove(itemId);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record IndexedItem(ItemDto item, Long ownerId, String name, String description, Set<String> grams) {
+
+        /**
+         * Тот же порядок, что и в ItemRepository.searchAvailableItems; -1, если вещь не подходит.
+         */
+        int rank(String query) {
+            if (name.equals(query)) {
+                return 0;
+            }
+            if (name.startsWith(query)) {
+                return 1;
+            }
+            if (name.contains(query)) {
+                return 2;
+            }
+            return description.contains(query) ? 3 : -1;
+        }
+    }
+
+    private record Match(int rank, ItemDto item) {
+    }
+
+    /**
+     * Снимок вещи после изменения; indexed равен null, если вещь не должна находиться поиском.
+     */
+    private record Change(Long itemId, long version, @Nullable IndexedItem indexed) {
+    }
+}
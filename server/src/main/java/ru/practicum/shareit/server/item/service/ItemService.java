@@ -1,5 +1,6 @@
 package ru.practicum.shareit.server.item.service;
 
+import ru.practicum.shareit.server.batch.BatchResultDto;
 import ru.practicum.shareit.server.item.dto.CommentDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemForOwnerDto;
@@ -11,13 +12,15 @@ public interface ItemService {
 
     ItemDto createItem(ItemDto itemDto, Long ownerId);
 
+    List<BatchResultDto<ItemDto>> createItems(List<ItemDto> itemDtos, Long ownerId);
+
     ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId);
 
     ItemWithBookingsDto getItemById(Long itemId, Long userId);
 
     List<ItemForOwnerDto> getItemsByOwner(Long ownerId);
 
-    List<ItemDto> searchItems(String text, Long userId);
+    List<ItemDto> searchItems(String text, Long userId, int from, int size);
 
     CommentDto addComment(Long itemId, Long authorId, CommentDto commentDto);
 
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.server.item.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.server.booking.model.Booking;
-import ru.practicum.shareit.server.booking.BookingRepository;
-import ru.practicum.shareit.server.booking.model.BookingStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.batch.BatchResultDto;
+import ru.practicum.shareit.server.batch.Batches;
+import ru.practicum.shareit.server.cache.EntityCache;
 import ru.practicum.shareit.server.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.server.booking.summary.BookingSummaries;
+import ru.practicum.shareit.server.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.server.booking.summary.ItemWithBookingSummary;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.CommentRepository;
@@ -15,33 +21,39 @@ import ru.practicum.shareit.server.item.ItemRepository;
 import ru.practicum.shareit.server.item.dto.*;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.request.ItemRequestRepository;
 import ru.practicum.shareit.server.request.model.ItemRequest;
-import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
+    private final BookingSummaries bookingSummaries;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final EntityCache entityCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
+    @Transactional
     public ItemDto createItem(ItemDto itemDto, Long ownerId) {
-        User owner = userRepository.findById(ownerId)
+        User owner = entityCache.findUser(ownerId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
-            throw new ValidationException("Название вещи не может быть пустым");
-        }
+        validateNewItem(itemDto);
 
         ItemRequest request = null;
         if (itemDto.getRequestId() != null) {
@@ -51,12 +63,72 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = ItemMapper.toItem(itemDto, owner, request);
         Item savedItem = itemRepository.save(item);
+        itemSearchEngine.onItemSaved(savedItem);
         return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
+    public List<BatchResultDto<ItemDto>> createItems(List<ItemDto> itemDtos, Long ownerId) {
+        User owner = entityCache.findUser(ownerId)
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        List<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        for (List<Long> chunk : Batches.chunks(requestIds, Batches.CHUNK_SIZE)) {
+            itemRequestRepository.findAllById(chunk).forEach(request -> requests.put(request.getId(), request));
+        }
+
+        List<BatchResultDto<ItemDto>> results = new ArrayList<>(Collections.nCopies(itemDtos.size(), null));
+        List<Integer> valid = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            try {
+                validateNewItem(itemDto);
+                ItemRequest request = null;
+                if (itemDto.getRequestId() != null) {
+                    request = requests.get(itemDto.getRequestId());
+                    if (request == null) {
+                        throw new NotFoundException("Запрос с id " + itemDto.getRequestId() + " не найден");
+                    }
+                }
+                items.add(ItemMapper.toItem(itemDto, owner, request));
+                valid.add(i);
+            } catch (NotFoundException | ValidationException e) {
+                results.set(i, BatchResultDto.failed(i, e));
+            }
+        }
+
+        List<List<Integer>> indexChunks = Batches.chunks(valid, Batches.CHUNK_SIZE);
+        List<List<Item>> itemChunks = Batches.chunks(items, Batches.CHUNK_SIZE);
+        for (int c = 0; c < indexChunks.size(); c++) {
+            List<Integer> chunk = indexChunks.get(c);
+            List<Item> toSave = itemChunks.get(c);
+            try {
+                List<Item> saved = transactionTemplate.execute(status -> {
+                    List<Item> chunkItems = itemRepository.saveAll(toSave);
+                    chunkItems.forEach(itemSearchEngine::onItemSaved);
+                    return chunkItems;
+                });
+                for (int j = 0; j < chunk.size(); j++) {
+                    results.set(chunk.get(j), BatchResultDto.created(chunk.get(j), ItemMapper.toItemDto(saved.get(j))));
+                }
+            } catch (DataAccessException e) {
+                log.error("Не удалось сохранить пакет из {} вещей владельца {}", chunk.size(), ownerId, e);
+                chunk.forEach(i -> results.set(i, BatchResultDto.failed(i, e)));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
     public ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId) {
-        Item existingItem = itemRepository.findById(itemId)
+        // Блокировка строки упорядочивает одновременные правки вещи, в том числе в поисковом индексе
+        Item existingItem = itemRepository.lockById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
 
         if (!existingItem.getOwner().getId().equals(ownerId)) {
@@ -74,30 +146,23 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        entityCache.evictItem(itemId);
+        itemSearchEngine.onItemSaved(updatedItem);
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemWithBookingsDto getItemById(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId)
+        Item item = entityCache.findItem(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
 
         ItemWithBookingsDto dto = mapToItemWithBookingsDto(item);
 
         if (item.getOwner().getId().equals(userId)) {
-            LocalDateTime now = LocalDateTime.now();
-
-            List<Booking> lastBookings = bookingRepository.findByItemOwnerIdAndEndBefore(
-                    userId, now, Sort.by(Sort.Direction.DESC, "end"));
-            if (!lastBookings.isEmpty()) {
-                dto.setLastBooking(mapToBookingInfoDto(lastBookings.getFirst()));
-            }
-
-            List<Booking> nextBookings = bookingRepository.findByItemOwnerIdAndStartAfter(
-                    userId, now, Sort.by(Sort.Direction.ASC, "start"));
-            if (!nextBookings.isEmpty()) {
-                dto.setNextBooking(mapToBookingInfoDto(nextBookings.getFirst()));
-            }
+            ItemBookingSummary summary = bookingSummaries.findByItemId(itemId, LocalDateTime.now());
+            dto.setLastBooking(mapToLastBookingInfoDto(summary));
+            dto.setNextBooking(mapToNextBookingInfoDto(summary));
         }
 
         List<Comment> comments = commentRepository.findByItemId(itemId);
@@ -107,73 +172,75 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemForOwnerDto> getItemsByOwner(Long ownerId) {
-        userRepository.findById(ownerId)
+        entityCache.findUser(ownerId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        List<Item> items = itemRepository.findByOwnerId(ownerId);
-        LocalDateTime now = LocalDateTime.now();
-
-        return items.stream().map(item -> {
-            ItemForOwnerDto dto = mapToItemForOwnerDto(item);
-
-            List<Booking> lastBookings = bookingRepository.findByItemOwnerIdAndEndBefore(
-                    ownerId, now, Sort.by(Sort.Direction.DESC, "end"));
-            List<Booking> nextBookings = bookingRepository.findByItemOwnerIdAndStartAfter(
-                    ownerId, now, Sort.by(Sort.Direction.ASC, "start"));
-
-            if (!lastBookings.isEmpty()) {
-                dto.setLastBooking(mapToBookingInfoDto(lastBookings.getFirst()));
-            }
-            if (!nextBookings.isEmpty()) {
-                dto.setNextBooking(mapToBookingInfoDto(nextBookings.getFirst()));
-            }
+        List<ItemWithBookingSummary> rows = bookingSummaries.findByOwnerId(ownerId, LocalDateTime.now());
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
 
+        List<Item> items = rows.stream()
+                .map(ItemWithBookingSummary::item)
+                .toList();
+        Map<Long, List<Comment>> comments = commentRepository.findByItemIn(items).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        return rows.stream().map(row -> {
+            ItemForOwnerDto dto = mapToItemForOwnerDto(row.item());
+            dto.setLastBooking(mapToLastBookingInfoDto(row.summary()));
+            dto.setNextBooking(mapToNextBookingInfoDto(row.summary()));
+            dto.setComments(mapToCommentDtoList(comments.getOrDefault(row.item().getId(), List.of())));
             return dto;
         }).collect(Collectors.toList());
     }
 
     @Override
-    public List<ItemDto> searchItems(String text, Long userId) {
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItems(String text, Long userId, int from, int size) {
         if (text == null || text.isBlank()) {
             return new ArrayList<>();
         }
 
-        List<Item> items = itemRepository.searchAvailableItems(text);
-        return items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return itemSearchEngine.search(text, from, size);
     }
 
     @Override
+    @Transactional
     public CommentDto addComment(Long itemId, Long authorId, CommentDto commentDto) {
-        List<Booking> userBookings = bookingRepository.findByBookerIdAndEndBefore(
-                authorId, LocalDateTime.now(), Sort.by(Sort.Direction.DESC, "end"));
-
-        boolean hasBookedItem = userBookings.stream()
-                .anyMatch(booking -> booking.getItem().getId().equals(itemId)
-                        && booking.getStatus() == BookingStatus.APPROVED);
+        LocalDateTime now = LocalDateTime.now();
+        boolean hasBookedItem = entityCache.findFirstApprovedBookingEnd(authorId, itemId)
+                .filter(end -> end.isBefore(now))
+                .isPresent();
 
         if (!hasBookedItem) {
             throw new ValidationException("Можно комментировать только ранее забронированные вещи");
         }
 
-        Item item = itemRepository.findById(itemId)
+        Item item = entityCache.findItem(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
-        User author = userRepository.findById(authorId)
+        User author = entityCache.findUser(authorId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
         Comment comment = Comment.builder()
                 .text(commentDto.getText())
                 .item(item)
                 .author(author)
-                .created(LocalDateTime.now())
+                .created(now)
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
         return mapToCommentDto(savedComment);
     }
 
+    private void validateNewItem(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            throw new ValidationException("Название вещи не может быть пустым");
+        }
+    }
+
     private ItemWithBookingsDto mapToItemWithBookingsDto(Item item) {
         return ItemWithBookingsDto.builder()
                 .id(item.getId())
@@ -192,12 +259,27 @@ public class ItemServiceImpl implements ItemService {
                 .build();
     }
 
-    private BookingInfoDto mapToBookingInfoDto(Booking booking) {
+    private BookingInfoDto mapToLastBookingInfoDto(ItemBookingSummary summary) {
+        if (summary.getLastBookingId() == null) {
+            return null;
+        }
+        return BookingInfoDto.builder()
+                .id(summary.getLastBookingId())
+                .bookerId(summary.getLastBookerId())
+                .start(summary.getLastStart())
+                .end(summary.getLastEnd())
+                .build();
+    }
+
+    private BookingInfoDto mapToNextBookingInfoDto(ItemBookingSummary summary) {
+        if (summary.getNextBookingId() == null) {
+            return null;
+        }
         return BookingInfoDto.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
+                .id(summary.getNextBookingId())
+                .bookerId(summary.getNextBookerId())
+                .start(summary.getNextStart())
+                .end(summary.getNextEnd())
                 .build();
     }
 
@@ -2,7 +2,10 @@ package ru.practicum.shareit.server.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.server.etag.Etags;
+import ru.practicum.shareit.server.pagination.SeekCursor;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.service.ItemRequestService;
 
@@ -15,6 +18,7 @@ import java.util.List;
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping
     public ItemRequestDto createRequest(@RequestBody ItemRequestDto requestDto,
@@ -25,24 +29,32 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getUserRequests(@RequestHeader(USER_ID_HEADER) Long requestorId) {
+    public ResponseEntity<List<ItemRequestDto>> getUserRequests(@RequestHeader(USER_ID_HEADER) Long requestorId) {
         log.info("Получение запросов пользователя: ID={}", requestorId);
-        return itemRequestService.getUserRequests(requestorId);
+        return Etags.ok(itemRequestService.getUserRequests(requestorId), USER_ID_HEADER);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
-                                               @RequestParam(defaultValue = "0") int from,
-                                               @RequestParam(defaultValue = "10") int size) {
-        log.info("Получение всех запросов других пользователей: пользователь={}, from={}, size={}",
-                userId, from, size);
-        return itemRequestService.getAllRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                               @RequestParam(defaultValue = "0") int from,
+                                                               @RequestParam(defaultValue = "10") int size,
+                                                               @RequestParam(required = false) String cursor) {
+        log.info("Получение всех запросов других пользователей: пользователь={}, from={}, size={}, cursor={}",
+                userId, from, size, cursor);
+        List<ItemRequestDto> requests = itemRequestService.getAllRequests(userId, from, size, cursor);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (requests.size() == size) {
+            ItemRequestDto last = requests.getLast();
+            response.header(NEXT_CURSOR_HEADER, new SeekCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(requests);
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestById(@PathVariable Long requestId,
-                                         @RequestHeader(USER_ID_HEADER) Long userId) {
+    public ResponseEntity<ItemRequestDto> getRequestById(@PathVariable Long requestId,
+                                                         @RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Получение запроса: ID={}, пользователь={}", requestId, userId);
-        return itemRequestService.getRequestById(requestId, userId);
+        return Etags.ok(itemRequestService.getRequestById(requestId, userId), USER_ID_HEADER);
     }
 }
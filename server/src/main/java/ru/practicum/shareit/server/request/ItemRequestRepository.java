@@ -1,17 +1,28 @@
 package ru.practicum.shareit.server.request;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    String VIEW = "SELECT new ru.practicum.shareit.server.request.ItemRequestView(" +
+            "r.id, r.description, r.requestor.id, r.created) FROM ItemRequest r ";
 
-    List<ItemRequest> findByRequestorId(Long requestorId, Sort sort);
+    @Query(VIEW + "WHERE r.requestor.id = :requestorId")
+    List<ItemRequestView> findByRequestorId(@Param("requestorId") Long requestorId, Sort sort);
 
-    List<ItemRequest> findByRequestorIdNot(Long requestorId, Sort sort);
+    @Query(VIEW + "WHERE r.requestor.id <> :requestorId " +
+            "AND (r.created, r.id) < (:cursorCreated, :cursorId)")
+    List<ItemRequestView> findByRequestorIdNot(@Param("requestorId") Long requestorId,
+                                               @Param("cursorCreated") LocalDateTime cursorCreated,
+                                               @Param("cursorId") Long cursorId, Pageable pageable);
 
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.server.request;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запрос вещи в списках: поля ItemRequestDto без ответов, выбранные без загрузки сущности.
+ */
+public record ItemRequestView(Long id, String description, Long requestorId, LocalDateTime created) {
+}
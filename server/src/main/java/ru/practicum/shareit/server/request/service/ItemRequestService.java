@@ -10,7 +10,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getUserRequests(Long requestorId);
 
-    List<ItemRequestDto> getAllRequests(Long userId, int from, int size);
+    List<ItemRequestDto> getAllRequests(Long userId, int from, int size, String cursor);
 
     ItemRequestDto getRequestById(Long requestId, Long userId);
 
@@ -3,31 +3,43 @@ package ru.practicum.shareit.server.request.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.batch.Batches;
+import ru.practicum.shareit.server.cache.EntityCache;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
+import ru.practicum.shareit.server.item.ItemMapper;
 import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.ItemView;
 import ru.practicum.shareit.server.item.dto.ItemDto;
-import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
+import ru.practicum.shareit.server.pagination.SeekCursor;
 import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.request.ItemRequestView;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.model.ItemRequest;
-import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "created", "id");
+
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityCache entityCache;
 
     @Override
+    @Transactional
     public ItemRequestDto createRequest(ItemRequestDto requestDto, Long requestorId) {
-        User requestor = userRepository.findById(requestorId)
+        User requestor = entityCache.findUser(requestorId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
         if (requestDto.getDescription() == null || requestDto.getDescription().isBlank()) {
@@ -45,44 +57,35 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getUserRequests(Long requestorId) {
-        userRepository.findById(requestorId)
+        entityCache.findUser(requestorId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        List<ItemRequest> requests = itemRequestRepository.findByRequestorId(
+        List<ItemRequestView> requests = itemRequestRepository.findByRequestorId(
                 requestorId, Sort.by(Sort.Direction.DESC, "created"));
 
-        return requests.stream()
-                .map(this::mapToItemRequestDtoWithItems)
-                .collect(Collectors.toList());
+        return mapToItemRequestDtosWithItems(requests);
     }
 
     @Override
-    public List<ItemRequestDto> getAllRequests(Long userId, int from, int size) {
-        userRepository.findById(userId)
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllRequests(Long userId, int from, int size, String cursor) {
+        entityCache.findUser(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        if (from < 0) {
-            throw new ValidationException("Параметр 'from' не может быть отрицательным");
-        }
-        if (size <= 0) {
-            throw new ValidationException("Параметр 'size' должен быть положительным");
-        }
+        SeekCursor seek = cursor != null ? SeekCursor.decode(cursor) : SeekCursor.FIRST;
+        // При переходе по курсору смещение уже учтено в условии на (created, id)
+        OffsetPageRequest page = new OffsetPageRequest(cursor != null ? 0 : from, size, NEWEST_FIRST);
 
-        List<ItemRequest> requests = itemRequestRepository.findByRequestorIdNot(
-                userId, Sort.by(Sort.Direction.DESC, "created"));
+        List<ItemRequestView> requests = itemRequestRepository.findByRequestorIdNot(
+                userId, seek.timestamp(), seek.id(), page);
 
-        List<ItemRequest> paginatedRequests = requests.stream()
-                .skip(from)
-                .limit(size)
-                .toList();
-
-        return paginatedRequests.stream()
-                .map(this::mapToItemRequestDtoWithItems)
-                .collect(Collectors.toList());
+        return mapToItemRequestDtosWithItems(requests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestDto getRequestById(Long requestId, Long userId) {
         ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос не найден"));
@@ -93,14 +96,40 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private ItemRequestDto mapToItemRequestDtoWithItems(ItemRequest request) {
         ItemRequestDto dto = mapToItemRequestDto(request);
 
-        List<Item> items = itemRepository.findByRequestId(request.getId());
+        List<ItemView> items = itemRepository.findByRequestId(request.getId());
         dto.setItems(items.stream()
-                .map(this::mapToItemDto)
+                .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList()));
 
         return dto;
     }
 
+    /**
+     * Загружает ответы на все запросы одним запросом IN (по частям для длинных списков)
+     * и раскладывает их по запросам, сохраняя порядок самих запросов.
+     */
+    private List<ItemRequestDto> mapToItemRequestDtosWithItems(List<ItemRequestView> requests) {
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequestView::id)
+                .toList();
+
+        Map<Long, List<ItemDto>> itemsByRequestId = new HashMap<>();
+        for (List<Long> chunk : Batches.chunks(requestIds, Batches.CHUNK_SIZE)) {
+            for (ItemView item : itemRepository.findByRequestIdIn(chunk)) {
+                itemsByRequestId.computeIfAbsent(item.requestId(), id -> new ArrayList<>())
+                        .add(ItemMapper.toItemDto(item));
+            }
+        }
+
+        return requests.stream()
+                .map(request -> {
+                    ItemRequestDto dto = mapToItemRequestDto(request);
+                    dto.setItems(itemsByRequestId.getOrDefault(request.id(), new ArrayList<>()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
     private ItemRequestDto mapToItemRequestDto(ItemRequest request) {
         return ItemRequestDto.builder()
                 .id(request.getId())
@@ -110,13 +139,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .build();
     }
 
-    private ItemDto mapToItemDto(Item item) {
-        return ItemDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+    private ItemRequestDto mapToItemRequestDto(ItemRequestView request) {
+        return ItemRequestDto.builder()
+                .id(request.id())
+                .description(request.description())
+                .requestorId(request.requestorId())
+                .created(request.created())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.server.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * При shareit.sql.count-header=true добавляет к ответу отладочный заголовок X-Sql-Statement-Count.
+ * Заголовок ставится перед записью тела, пока ответ ещё не отправлен.
+ */
+@RestControllerAdvice
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-Sql-Statement-Count";
+
+    private final boolean enabled;
+
+    public SqlStatementCountAdvice(@Value("${shareit.sql.count-header:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementCounter.current()
+                .ifPresent(scope -> response.getHeaders().set(HEADER, String.valueOf(scope.count())));
+        return body;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.server.sql;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Считает SQL-запросы, которые Hibernate готовит в текущем потоке, пока открыта область подсчёта.
+ * Области могут быть вложенными: запрос засчитывается каждой открытой области потока,
+ * так что счётчик теста видит и запросы, выполненные внутри HTTP-запроса через MockMvc.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.record(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    public static Scope open() {
+        return open(false);
+    }
+
+    /**
+     * Открывает область подсчёта; при keepStatements сохраняет и тексты запросов для диагностики.
+     */
+    public static Scope open(boolean keepStatements) {
+        Scope scope = new Scope(CURRENT.get(), keepStatements ? new ArrayList<>() : null);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static Optional<Scope> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final List<String> statements;
+        private int count;
+
+        private Scope(Scope parent, List<String> statements) {
+            this.parent = parent;
+            this.statements = statements;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public List<String> statements() {
+            return statements != null ? List.copyOf(statements) : List.of();
+        }
+
+        private void record(String sql) {
+            count++;
+            if (statements != null) {
+                statements.add(sql);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
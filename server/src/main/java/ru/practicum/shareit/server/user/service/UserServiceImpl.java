@@ -2,9 +2,13 @@ package ru.practicum.shareit.server.user.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.summary.BookingSummaries;
+import ru.practicum.shareit.server.cache.EntityCache;
 import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.user.UserMapper;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.dto.UserDto;
@@ -19,8 +23,12 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final EntityCache entityCache;
+    private final BookingSummaries bookingSummaries;
 
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto) {
         if (userRepository.findByEmail(userDto.getEmail()).isPresent()) {
             throw new ConflictException("Пользователь с email " + userDto.getEmail() + " уже существует");
@@ -32,6 +40,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto updateUser(Long userId, UserDto userDto) {
 
         User user = userRepository.findById(userId)
@@ -67,16 +76,19 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        entityCache.evictUser(userId);
         return userMapper.toDto(updatedUser);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long userId) {
         User user = getUserEntityById(userId);
         return userMapper.toDto(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(userMapper::toDto)
@@ -84,15 +96,21 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь с id: " + userId + " не найден");
         }
         userRepository.deleteById(userId);
+        entityCache.evictUser(userId);
+        // Вместе с пользователем база удаляет его вещи и отвязывает их от его запросов
+        entityCache.evictAllItems();
+        itemSearchEngine.onOwnerDeleted(userId);
+        bookingSummaries.onBookerDeleted(userId);
     }
 
     private User getUserEntityById(Long userId) {
-        return userRepository.findById(userId)
+        return entityCache.findUser(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id: " + userId + " не найден"));
     }
 }
\ No newline at end of file
@@ -1,19 +1,31 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('users_seq') PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(255) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('requests_seq') PRIMARY KEY,
     description TEXT NOT NULL,
     requestor_id BIGINT NOT NULL,
-    created TIMESTAMP WITHOUT TIME ZONE,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     CONSTRAINT fk_requests_requestor FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('items_seq') PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description TEXT,
     is_available BOOLEAN NOT NULL,
@@ -24,7 +36,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('bookings_seq') PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT NOT NULL,
@@ -36,11 +48,123 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('comments_seq') PRIMARY KEY,
     text TEXT NOT NULL,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT fk_comments_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     CONSTRAINT fk_comments_author FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT PRIMARY KEY,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    last_end TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    next_end TIMESTAMP WITHOUT TIME ZONE,
+    valid_until TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+-- Прежняя схема допускала запросы без даты создания, а условие курсора (created, id) < (...) их не находит.
+-- Такие запросы получают время миграции: при сортировке по убыванию даты NULL и раньше шли первыми
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = ''requests'' AND column_name = ''created'' AND is_nullable = ''YES'') THEN
+        UPDATE requests SET created = LOCALTIMESTAMP WHERE created IS NULL;
+        ALTER TABLE requests ALTER COLUMN created SET NOT NULL;
+    END IF;
+END';
+
+-- Отдельным шагом, чтобы ограничение появилось и в уже существующей таблице bookings.
+-- Прежняя схема допускала пересекающиеся активные бронирования: из каждой такой группы остаётся
+-- подтверждённое, а при равном статусе — созданное раньше, остальные отклоняются, их id выводятся в WARNING.
+-- Сводки затронутых вещей удаляются и пересчитываются при чтении.
+-- Тело DO в одинарных кавычках: скрипт делится по ";", а $$-строки при этом не распознаются
+DO '
+DECLARE
+    b RECORD;
+    rejected BIGINT[] := ''{}'';
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''excl_bookings_item_period'') THEN
+        LOCK TABLE bookings IN SHARE ROW EXCLUSIVE MODE;
+        FOR b IN SELECT id, item_id, start_date, end_date, status FROM bookings
+                 WHERE status IN (''WAITING'', ''APPROVED'')
+                 ORDER BY item_id, status = ''APPROVED'' DESC, id LOOP
+            IF EXISTS (SELECT 1 FROM bookings k
+                       WHERE k.item_id = b.item_id
+                         AND k.id <> b.id
+                         AND k.status IN (''WAITING'', ''APPROVED'')
+                         AND (k.status = ''APPROVED'' AND b.status = ''WAITING'' OR k.status = b.status AND k.id < b.id)
+                         AND tsrange(k.start_date, k.end_date) && tsrange(b.start_date, b.end_date)) THEN
+                UPDATE bookings SET status = ''REJECTED'' WHERE id = b.id;
+                rejected := rejected || b.id;
+            END IF;
+        END LOOP;
+        IF cardinality(rejected) > 0 THEN
+            RAISE WARNING ''Отклонены пересекающиеся бронирования: %'', rejected;
+            DELETE FROM item_booking_summary
+            WHERE item_id IN (SELECT item_id FROM bookings WHERE id = ANY (rejected));
+        END IF;
+        ALTER TABLE bookings ADD CONSTRAINT excl_bookings_item_period
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+            WHERE (status IN (''WAITING'', ''APPROVED''));
+    END IF;
+END';
+
+-- В базе, созданной до перехода на последовательности, они начинаются с 1 под уже занятыми id.
+-- Hibernate берёт блок из 50 id ниже значения nextval, поэтому значение ставится на MAX(id),
+-- и только если последовательность отстаёт: на актуальной базе запуск ничего не меняет
+SELECT setval('users_seq', MAX(id)) FROM users
+HAVING MAX(id) >= (SELECT CASE WHEN is_called THEN last_value + 1 ELSE last_value END FROM users_seq);
+
+SELECT setval('requests_seq', MAX(id)) FROM requests
+HAVING MAX(id) >= (SELECT CASE WHEN is_called THEN last_value + 1 ELSE last_value END FROM requests_seq);
+
+SELECT setval('items_seq', MAX(id)) FROM items
+HAVING MAX(id) >= (SELECT CASE WHEN is_called THEN last_value + 1 ELSE last_value END FROM items_seq);
+
+SELECT setval('bookings_seq', MAX(id)) FROM bookings
+HAVING MAX(id) >= (SELECT CASE WHEN is_called THEN last_value + 1 ELSE last_value END FROM bookings_seq);
+
+SELECT setval('comments_seq', MAX(id)) FROM comments
+HAVING MAX(id) >= (SELECT CASE WHEN is_called THEN last_value + 1 ELSE last_value END FROM comments_seq);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status_end ON bookings (booker_id, item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_valid_until ON item_booking_summary (valid_until)
+    WHERE valid_until IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id) WHERE request_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items
+    USING gin (UPPER(name) gin_trgm_ops) WHERE is_available = true;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items
+    USING gin (UPPER(description) gin_trgm_ops) WHERE is_available = true;
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.server;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.model.User;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Transactional
+@ActiveProfiles("test")
+class PrometheusMetricsTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void prometheus_shouldExposeEndpointRepositoryHibernateAndPoolMetrics() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("Owner Name")
+                .email("metrics-owner@test.com")
+                .build());
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, owner.getId())
+                        .param("state", "WAITING"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, owner.getId())
+                        .param("state", "whatever"))
+                .andExpect(status().is4xxClientError());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        matchesPattern("(?s).*http_server_requests_seconds_count\\{[^}]*state=\"WAITING\""
+                                + "[^}]*uri=\"/bookings/owner\"[^}]*}.*"),
+                        matchesPattern("(?s).*http_server_requests_seconds_count\\{[^}]*state=\"INVALID\"[^}]*}.*"),
+                        matchesPattern("(?s).*spring_data_repository_invocations_seconds_count\\{[^}]*"
+                                + "method=\"findByItemOwnerIdAndStatus\"[^}]*repository=\"BookingRepository\".*"),
+                        containsString("hibernate_statements_total"),
+                        containsString("hibernate_entities_loads_total"),
+                        matchesPattern("(?s).*cache_gets_total\\{[^}]*cache=\"items\"[^}]*result=\"hit\".*"),
+                        containsString("hikaricp_connections_active"))));
+    }
+}
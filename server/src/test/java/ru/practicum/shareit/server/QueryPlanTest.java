@@ -0,0 +1,354 @@
+package ru.practicum.shareit.server;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.server.item.CommentRepository;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.OffsetPageRequest;
+import ru.practicum.shareit.server.pagination.SeekCursor;
+import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.model.User;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет по EXPLAIN на PostgreSQL из schema.sql, что запросы репозиториев идут по ожидаемым индексам.
+ * SQL берётся из Hibernate, план строится для подготовленного запроса (GENERIC_PLAN) с настройками
+ * планировщика по умолчанию. Таблицы заранее заполняются query-plan-data.sql и проходят ANALYZE,
+ * поэтому выбор между индексом и полным сканированием делается по реальной статистике.
+ * Здесь же проверяются шаги schema.sql, которые должны применяться к уже существующей базе.
+ * <p>
+ * PostgreSQL поднимается в Testcontainers: без Docker весь класс пропускается (disabledWithoutDocker),
+ * и в отчёте surefire он виден как skipped, а не как пройденный. Чтобы проверка планов действительно
+ * выполнялась, тесты нужно запускать на машине с Docker.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.datasource.hikari.data-source-properties.preferQueryMode=simple",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.mode=always",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.server.QueryPlanTest$CapturingInspector"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    static void fillTables(@Autowired DataSource dataSource) {
+        new ResourceDatabasePopulator(new ClassPathResource("query-plan-data.sql")).execute(dataSource);
+    }
+
+    @Test
+    void schema_shouldAddOverlapConstraintToExistingBookingsTable() {
+        jdbcTemplate.execute("ALTER TABLE bookings DROP CONSTRAINT excl_bookings_item_period");
+
+        runSchema();
+        runSchema();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = 'excl_bookings_item_period'", Integer.class));
+
+        Long ownerId = insertUser("overlap-owner@test.com");
+        Long bookerId = insertUser("overlap-booker@test.com");
+        Long itemId = jdbcTemplate.queryForObject(
+                "INSERT INTO items (name, description, is_available, owner_id) VALUES ('Дрель', 'Ударная', true, ?) "
+                        + "RETURNING id", Long.class, ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        String insertBooking = "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        try {
+            jdbcTemplate.update(insertBooking, start, start.plusDays(2), itemId, bookerId, "WAITING");
+            jdbcTemplate.update(insertBooking, start, start.plusDays(1), itemId, bookerId, "REJECTED");
+
+            DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                    () -> jdbcTemplate.update(insertBooking, start.plusDays(1), start.plusDays(3),
+                            itemId, bookerId, "APPROVED"));
+            assertTrue(e.getMostSpecificCause().getMessage().contains("excl_bookings_item_period"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", ownerId, bookerId);
+        }
+    }
+
+    @Test
+    void schema_shouldRejectOverlappingBookingsBeforeAddingConstraint() {
+        jdbcTemplate.execute("ALTER TABLE bookings DROP CONSTRAINT excl_bookings_item_period");
+        Long ownerId = insertUser("legacy-owner@test.com");
+        Long bookerId = insertUser("legacy-booker@test.com");
+        Long itemId = jdbcTemplate.queryForObject(
+                "INSERT INTO items (name, description, is_available, owner_id) VALUES ('Дрель', 'Ударная', true, ?) "
+                        + "RETURNING id", Long.class, ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        String insertBooking = "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?) RETURNING id";
+        try {
+            Long waiting = jdbcTemplate.queryForObject(insertBooking, Long.class,
+                    start, start.plusDays(2), itemId, bookerId, "WAITING");
+            Long approved = jdbcTemplate.queryForObject(insertBooking, Long.class,
+                    start.plusDays(1), start.plusDays(3), itemId, bookerId, "APPROVED");
+            Long earlier = jdbcTemplate.queryForObject(insertBooking, Long.class,
+                    start.plusDays(4), start.plusDays(5), itemId, bookerId, "WAITING");
+            Long later = jdbcTemplate.queryForObject(insertBooking, Long.class,
+                    start.plusDays(4), start.plusDays(6), itemId, bookerId, "WAITING");
+
+            runSchema();
+
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_constraint WHERE conname = 'excl_bookings_item_period'", Integer.class));
+            assertEquals(Map.of(waiting, "REJECTED", approved, "APPROVED", earlier, "WAITING", later, "REJECTED"),
+                    statuses(itemId));
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", ownerId, bookerId);
+        }
+    }
+
+    @Test
+    void schema_shouldFillMissingRequestDates() {
+        jdbcTemplate.execute("ALTER TABLE requests ALTER COLUMN created DROP NOT NULL");
+        Long requestorId = insertUser("legacy-requestor@test.com");
+        Long readerId = insertUser("legacy-reader@test.com");
+        Long requestId = jdbcTemplate.queryForObject("INSERT INTO requests (description, requestor_id, created) "
+                + "VALUES ('Нужна дрель', ?, NULL) RETURNING id", Long.class, requestorId);
+        try {
+            runSchema();
+
+            assertEquals("NO", jdbcTemplate.queryForObject("SELECT is_nullable FROM information_schema.columns "
+                    + "WHERE table_name = 'requests' AND column_name = 'created'", String.class));
+            assertNotNull(jdbcTemplate.queryForObject(
+                    "SELECT created FROM requests WHERE id = ?", LocalDateTime.class, requestId));
+            assertEquals(requestId, itemRequestRepository.findByRequestorIdNot(readerId,
+                    SeekCursor.FIRST.timestamp(), SeekCursor.FIRST.id(),
+                    new OffsetPageRequest(0, 1, Sort.by(Sort.Direction.DESC, "created", "id"))).getFirst().id());
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", requestorId, readerId);
+        }
+    }
+
+    @Test
+    void schema_shouldMoveSequencesAboveExistingIds() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (100000, 'Старый', 'legacy@test.com')");
+        try {
+            runSchema();
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM users_seq", Long.class);
+            runSchema();
+
+            assertEquals(lastValue, jdbcTemplate.queryForObject("SELECT last_value FROM users_seq", Long.class));
+            Long userId = userRepository.save(User.builder().name("Новый").email("new@test.com").build()).getId();
+            assertTrue(userId > 100000);
+            userRepository.deleteById(userId);
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE id = 100000");
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueries_shouldUseExpectedIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursor = LocalDateTime.of(9999, 12, 31, 23, 59);
+        Pageable page = new OffsetPageRequest(0, 10, NEWEST_FIRST);
+        List<Long> ids = List.of(1L, 2L);
+        List<BookingStatus> active = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        List<PlannedQuery> queries = List.of(
+                query("findByIdWithRelations", () -> bookingRepository.findByIdWithRelations(1L),
+                        "bookings_pkey"),
+                query("findByBookerId", () -> bookingRepository.findByBookerId(1L, cursor, 1L, page),
+                        "idx_bookings_booker_start"),
+                query("findCurrentByBookerId",
+                        () -> bookingRepository.findCurrentByBookerId(1L, now, cursor, 1L, page),
+                        "idx_bookings_booker_start"),
+                query("findByBookerIdAndEndBefore",
+                        () -> bookingRepository.findByBookerIdAndEndBefore(1L, now, cursor, 1L, page),
+                        "idx_bookings_booker_start"),
+                query("findByBookerIdAndStartAfter",
+                        () -> bookingRepository.findByBookerIdAndStartAfter(1L, now, cursor, 1L, page),
+                        "idx_bookings_booker_start"),
+                query("findByBookerIdAndStatus", () -> bookingRepository.findByBookerIdAndStatus(
+                        1L, BookingStatus.WAITING, cursor, 1L, page), "idx_bookings_booker_status_start"),
+                query("findByItemOwnerId", () -> bookingRepository.findByItemOwnerId(1L, cursor, 1L, page),
+                        "idx_items_owner", "idx_bookings_item_start"),
+                query("findCurrentByOwnerId",
+                        () -> bookingRepository.findCurrentByOwnerId(1L, now, cursor, 1L, page),
+                        "idx_items_owner", "idx_bookings_item_end"),
+                query("findByItemOwnerIdAndEndBefore",
+                        () -> bookingRepository.findByItemOwnerIdAndEndBefore(1L, now, cursor, 1L, page),
+                        "idx_items_owner", "idx_bookings_item_end"),
+                query("findByItemOwnerIdAndStartAfter",
+                        () -> bookingRepository.findByItemOwnerIdAndStartAfter(1L, now, cursor, 1L, page),
+                        "idx_items_owner", "idx_bookings_item_start"),
+                query("findByItemOwnerIdAndStatus", () -> bookingRepository.findByItemOwnerIdAndStatus(
+                        1L, BookingStatus.WAITING, cursor, 1L, page), "idx_items_owner", "idx_bookings_item_start"),
+                query("findLastBookingsByItemIds", () -> bookingRepository.findLastBookingsByItemIds(
+                        ids, BookingStatus.APPROVED, now), "idx_bookings_item_end"),
+                query("findNextBookingsByItemIds", () -> bookingRepository.findNextBookingsByItemIds(
+                        ids, BookingStatus.APPROVED, now), "idx_bookings_item_start"),
+                query("findEarliestEndsByItemIds", () -> bookingRepository.findEarliestEndsByItemIds(
+                        ids, BookingStatus.APPROVED, now), "idx_bookings_item_end"),
+                query("findFirstEndByBookerIdAndItemIdAndStatus", () -> bookingRepository
+                        .findFirstEndByBookerIdAndItemIdAndStatus(1L, 1L, BookingStatus.APPROVED),
+                        "idx_bookings_booker_item_status_end"),
+                query("findActiveByItemId", () -> bookingRepository.findActiveByItemId(1L, active, now),
+                        "idx_bookings_item_end"),
+                query("findActiveByItemIdIn", () -> bookingRepository.findActiveByItemIdIn(ids, active, now),
+                        "idx_bookings_item_end"),
+                query("items.findByOwnerId", () -> itemRepository.findByOwnerId(1L), "idx_items_owner"),
+                query("summaries.findItemsByOwnerId", () -> summaryRepository.findItemsByOwnerId(1L),
+                        "idx_items_owner", "item_booking_summary_pkey"),
+                query("summaries.findExpiredItemIds",
+                        () -> summaryRepository.findExpiredItemIds(now, PageRequest.of(0, 10)),
+                        "idx_item_booking_summary_valid_until"),
+                query("items.findByRequestId", () -> itemRepository.findByRequestId(1L), "idx_items_request"),
+                query("items.findByRequestIdIn", () -> itemRepository.findByRequestIdIn(ids), "idx_items_request"),
+                query("comments.findByItemId", () -> commentRepository.findByItemId(1L), "idx_comments_item"),
+                query("comments.findByItemIn",
+                        () -> commentRepository.findByItemIn(List.of(Item.builder().id(1L).build())),
+                        "idx_comments_item"),
+                query("comments.findByAuthorId", () -> commentRepository.findByAuthorId(1L), "idx_comments_author"),
+                query("requests.findByRequestorId", () -> itemRequestRepository.findByRequestorId(
+                        1L, Sort.by(Sort.Direction.DESC, "created")), "idx_requests_requestor_created"),
+                query("requests.findByRequestorIdNot", () -> itemRequestRepository.findByRequestorIdNot(
+                        1L, cursor, 1L, new OffsetPageRequest(0, 10, Sort.by(Sort.Direction.DESC, "created", "id"))),
+                        "idx_requests_created"),
+                query("users.findByEmail", () -> userRepository.findByEmail("user@test.com"), "users_email_key")
+        );
+
+        return queries.stream()
+                .map(query -> DynamicTest.dynamicTest(query.name(), () -> {
+                    CapturingInspector.STATEMENTS.clear();
+                    query.call().run();
+                    String sql = CapturingInspector.STATEMENTS.getLast();
+                    List<String> plan = explain(sql);
+                    String details = sql + "\n" + String.join("\n", plan);
+
+                    assertFalse(plan.stream().anyMatch(line -> line.contains("Seq Scan")),
+                            () -> query.name() + " сканирует таблицу целиком:\n" + details);
+                    for (String index : query.indexes()) {
+                        assertTrue(plan.stream().anyMatch(line -> line.matches(".* (using|on) " + index + "( .*|$)")),
+                                () -> query.name() + " не использует " + index + ":\n" + details);
+                    }
+                }));
+    }
+
+    private void runSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+    }
+
+    private Map<Long, String> statuses(Long itemId) {
+        Map<Long, String> statuses = new HashMap<>();
+        jdbcTemplate.query("SELECT id, status FROM bookings WHERE item_id = ?",
+                (RowCallbackHandler) rs -> statuses.put(rs.getLong("id"), rs.getString("status")), itemId);
+        return statuses;
+    }
+
+    private Long insertUser(String email) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (name, email) VALUES ('Пользователь', ?) RETURNING id",
+                Long.class, email);
+    }
+
+    private List<String> explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql))) {
+                    while (rs.next()) {
+                        plan.add(rs.getString(1));
+                    }
+                }
+                return plan;
+            }
+        });
+    }
+
+    private static PlannedQuery query(String name, Runnable call, String... indexes) {
+        return new PlannedQuery(name, call, List.of(indexes));
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private record PlannedQuery(String name, Runnable call, List<String> indexes) {
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.server.item.CommentRepository;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.request.ItemRequestRepository;
+import ru.practicum.shareit.server.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Запросы без открытой на время запроса сессии и без тестовой транзакции: ленивые связи должны
+ * читаться внутри транзакций сервисов, а каждый GET занимает соединение из пула ровно один раз.
+ */
+@SpringBootTest(properties = "shareit.booking-summary.roll-forward-delay=PT1H")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionBoundaryTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        summaryRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void requests_shouldWorkWithoutOpenSessionAndUseOneConnectionPerGet() throws Exception {
+        long ownerId = create(post("/users"), null, Map.of("name", "Owner", "email", "tx-owner@test.com"));
+        long bookerId = create(post("/users"), null, Map.of("name", "Booker", "email", "tx-booker@test.com"));
+        long requestId = create(post("/requests"), bookerId, Map.of("description", "Нужна дрель"));
+        long itemId = create(post("/items"), ownerId, Map.of(
+                "name", "Дрель", "description", "Аккумуляторная", "available", true, "requestId", requestId));
+        LocalDateTime start = LocalDateTime.now().minusDays(2).withNano(0);
+        long bookingId = create(post("/bookings"), bookerId, Map.of(
+                "itemId", itemId, "start", start.toString(), "end", start.plusDays(1).toString()));
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                        .header(USER_ID_HEADER, ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booker.name", is("Booker")))
+                .andExpect(jsonPath("$.item.name", is("Дрель")));
+        create(post("/items/{itemId}/comment", itemId), bookerId, Map.of("text", "Отличная дрель"));
+
+        assertSingleCheckout(get("/items").header(USER_ID_HEADER, ownerId), "$[0].lastBooking.id", bookingId);
+        assertSingleCheckout(get("/items/{itemId}", itemId).header(USER_ID_HEADER, ownerId),
+                "$.comments[0].authorName", "Booker");
+        assertSingleCheckout(get("/bookings/owner").header(USER_ID_HEADER, ownerId), "$[0].booker.name", "Booker");
+        assertSingleCheckout(get("/bookings/{bookingId}", bookingId).header(USER_ID_HEADER, bookerId),
+                "$.item.name", "Дрель");
+        assertSingleCheckout(get("/requests").header(USER_ID_HEADER, bookerId), "$[0].items[0].id", itemId);
+        assertSingleCheckout(get("/items/search").header(USER_ID_HEADER, bookerId).param("text", "дрель"),
+                "$[0].requestId", requestId);
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    private long create(MockHttpServletRequestBuilder request, Long userId, Map<String, Object> body)
+            throws Exception {
+        request.contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+        if (userId != null) {
+            request.header(USER_ID_HEADER, userId);
+        }
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(response);
+        return json.get("id").asLong();
+    }
+
+    private void assertSingleCheckout(MockHttpServletRequestBuilder request, String path, Object expected)
+            throws Exception {
+        long before = checkouts();
+        Object value = expected instanceof Long id ? id.intValue() : expected;
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(path, is(value)));
+        assertEquals(1, checkouts() - before, "Соединений на запрос");
+    }
+
+    private long checkouts() {
+        return meterRegistry.get("hikaricp.connections.usage").timer().count();
+    }
+}
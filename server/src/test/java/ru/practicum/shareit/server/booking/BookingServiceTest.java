@@ -1,20 +1,26 @@
 package ru.practicum.shareit.server.booking;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.batch.BatchResultDto;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingState;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
 import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.ItemRepository;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.SeekCursor;
 import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
@@ -40,6 +46,9 @@ class BookingServiceTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User owner;
     private User booker;
     private Item item;
@@ -119,6 +128,72 @@ class BookingServiceTest {
                 () -> bookingService.createBooking(bookingDto, booker.getId()));
     }
 
+    @Test
+    void createBooking_shouldRejectOverlappingPeriod() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingService.createBooking(bookingDto(base, base.plusDays(2)), booker.getId());
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingDto(base.plusDays(1), base.plusDays(3)), booker.getId()));
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingDto(base.minusHours(1), base.plusHours(1)), booker.getId()));
+        BookingDto adjacent = bookingService.createBooking(
+                bookingDto(base.plusDays(2), base.plusDays(3)), booker.getId());
+
+        assertEquals(BookingStatus.WAITING, adjacent.getStatus());
+    }
+
+    @Test
+    void createBooking_shouldSeeBookingsSavedOutsideService() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingRepository.save(Booking.builder()
+                .start(base)
+                .end(base.plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingDto(base.plusDays(1), base.plusDays(3)), booker.getId()));
+    }
+
+    @Test
+    void createBooking_shouldAllowPeriodOfRejectedBooking() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDto first = bookingService.createBooking(bookingDto(base, base.plusDays(2)), booker.getId());
+        bookingService.approveBooking(first.getId(), owner.getId(), false);
+
+        BookingDto second = bookingService.createBooking(bookingDto(base, base.plusDays(2)), booker.getId());
+
+        assertNotEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    void createBookings_shouldReportResultPerRecord() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("Пила")
+                .description("Циркулярная пила")
+                .available(true)
+                .owner(owner)
+                .build());
+        List<BookingDto> batch = List.of(
+                bookingDto(base, base.plusDays(2)),
+                bookingDto(base.plusDays(1), base.plusDays(3)),
+                BookingDto.builder().itemId(otherItem.getId()).start(base).end(base.plusDays(2)).build(),
+                BookingDto.builder().itemId(item.getId() + 1000).start(base).end(base.plusDays(2)).build(),
+                bookingDto(base.plusDays(5), base.plusDays(4)));
+
+        List<BatchResultDto<BookingDto>> results = bookingService.createBookings(batch, booker.getId());
+
+        assertEquals(List.of(201, 409, 201, 404, 400), results.stream().map(BatchResultDto::getStatus).toList());
+        assertEquals(otherItem.getId(), results.get(2).getResult().getItem().getId());
+        assertEquals("Booker Name", results.get(0).getResult().getBooker().getName());
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingDto(base.plusHours(1), base.plusHours(2)), booker.getId()));
+    }
+
     @Test
     void approveBooking_shouldApproveBookingSuccessfully() {
         LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
@@ -304,7 +379,7 @@ class BookingServiceTest {
         bookingRepository.save(booking2);
 
         List<BookingDto> bookings = bookingService.getUserBookings(
-                booker.getId(), BookingState.ALL, "start", "DESC");
+                booker.getId(), BookingState.ALL, 0, 10, null);
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.get(0).getStart().isAfter(bookings.get(1).getStart()));
@@ -313,7 +388,7 @@ class BookingServiceTest {
     @Test
     void getUserBookings_shouldReturnEmptyListWhenNoBookings() {
         List<BookingDto> bookings = bookingService.getUserBookings(
-                booker.getId(), BookingState.ALL, "start", "DESC");
+                booker.getId(), BookingState.ALL, 0, 10, null);
 
         assertTrue(bookings.isEmpty());
     }
@@ -333,7 +408,7 @@ class BookingServiceTest {
         bookingRepository.save(booking);
 
         List<BookingDto> bookings = bookingService.getOwnerBookings(
-                owner.getId(), BookingState.ALL, "start", "DESC");
+                owner.getId(), BookingState.ALL, 0, 10, null);
 
         assertEquals(1, bookings.size());
         assertEquals(booking.getId(), bookings.getFirst().getId());
@@ -356,7 +431,7 @@ class BookingServiceTest {
         bookingRepository.save(booking1);
 
         List<BookingDto> bookings = bookingService.getUserBookings(
-                booker.getId(), BookingState.CURRENT, "start", "ASC");
+                booker.getId(), BookingState.CURRENT, 0, 10, null);
 
         assertEquals(1, bookings.size());
         assertEquals(booking1.getId(), bookings.getFirst().getId());
@@ -379,7 +454,7 @@ class BookingServiceTest {
         bookingRepository.save(booking);
 
         List<BookingDto> bookings = bookingService.getUserBookings(
-                booker.getId(), BookingState.PAST, "start", "ASC");
+                booker.getId(), BookingState.PAST, 0, 10, null);
 
         assertEquals(1, bookings.size());
         assertEquals(booking.getId(), bookings.getFirst().getId());
@@ -402,7 +477,7 @@ class BookingServiceTest {
         bookingRepository.save(booking);
 
         List<BookingDto> bookings = bookingService.getUserBookings(
-                booker.getId(), BookingState.FUTURE, "start", "ASC");
+                booker.getId(), BookingState.FUTURE, 0, 10, null);
 
         assertEquals(1, bookings.size());
         assertEquals(booking.getId(), bookings.getFirst().getId());
@@ -421,7 +496,7 @@ class BookingServiceTest {
         bookingRepository.save(booking);
 
         List<BookingDto> bookings = bookingService.getUserBookings(
-                booker.getId(), BookingState.WAITING, "start", "ASC");
+                booker.getId(), BookingState.WAITING, 0, 10, null);
 
         assertEquals(1, bookings.size());
         assertEquals(BookingStatus.WAITING, bookings.getFirst().getStatus());
@@ -440,7 +515,7 @@ class BookingServiceTest {
         bookingRepository.save(booking);
 
         List<BookingDto> bookings = bookingService.getUserBookings(
-                booker.getId(), BookingState.REJECTED, "start", "ASC");
+                booker.getId(), BookingState.REJECTED, 0, 10, null);
 
         assertEquals(1, bookings.size());
         assertEquals(BookingStatus.REJECTED, bookings.getFirst().getStatus());
@@ -463,15 +538,89 @@ class BookingServiceTest {
         bookingRepository.save(booking1);
 
         List<BookingDto> bookings = bookingService.getOwnerBookings(
-                owner.getId(), BookingState.CURRENT, "start", "ASC");
+                owner.getId(), BookingState.CURRENT, 0, 10, null);
         assertEquals(1, bookings.size());
         assertEquals(booking1.getId(), bookings.getFirst().getId());
     }
 
+    @Test
+    void getOwnerBookings_shouldNotLoadBookingEntities() {
+        LocalDateTime start = LocalDateTime.now().minusDays(5).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<BookingDto> bookings = bookingService.getOwnerBookings(
+                owner.getId(), BookingState.PAST, 0, 10, null);
+
+        assertEquals(3, bookings.size());
+        assertEquals(booker.getName(), bookings.getFirst().getBooker().getName());
+        assertEquals(item.getName(), bookings.getFirst().getItem().getName());
+        assertEquals(0, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+    }
+
     @Test
     void getOwnerBookings_shouldHandleEmptyList() {
         List<BookingDto> bookings = bookingService.getOwnerBookings(
-                owner.getId(), BookingState.ALL, "start", "DESC");
+                owner.getId(), BookingState.ALL, 0, 10, null);
         assertTrue(bookings.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserBookings_shouldPaginateByOffsetAndCursor() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 5; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(base.plusDays(i))
+                    .end(base.plusDays(i).plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+
+        List<BookingDto> firstPage = bookingService.getUserBookings(
+                booker.getId(), BookingState.ALL, 0, 2, null);
+        List<BookingDto> offsetPage = bookingService.getUserBookings(
+                booker.getId(), BookingState.ALL, 2, 2, null);
+        BookingDto lastOfFirst = firstPage.getLast();
+        String cursor = new SeekCursor(lastOfFirst.getStart(), lastOfFirst.getId()).encode();
+        List<BookingDto> cursorPage = bookingService.getUserBookings(
+                booker.getId(), BookingState.ALL, 0, 2, cursor);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(base.plusDays(4), firstPage.getFirst().getStart());
+        assertEquals(offsetPage.stream().map(BookingDto::getId).toList(),
+                cursorPage.stream().map(BookingDto::getId).toList());
+        assertEquals(base.plusDays(2), cursorPage.getFirst().getStart());
+    }
+
+    @Test
+    void getOwnerBookings_shouldRejectMalformedCursor() {
+        Long ownerId = owner.getId();
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getOwnerBookings(ownerId, BookingState.ALL, 0, 10, "not-a-cursor"));
+    }
+
+    private BookingDto bookingDto(LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.server.booking.availability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.batch.BatchResultDto;
+import ru.practicum.shareit.server.batch.Batches;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.exception.ConflictException;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingAvailabilityTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingAvailability bookingAvailability;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .name("Owner Name")
+                .email("availability-owner@test.com")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("Booker Name")
+                .email("availability-booker@test.com")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void reserve_shouldAcceptOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<BookingDto>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                LocalDateTime shiftedStart = start.plusHours(i);
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    return bookingService.createBooking(BookingDto.builder()
+                            .itemId(item.getId())
+                            .start(shiftedStart)
+                            .end(shiftedStart.plusDays(1))
+                            .build(), booker.getId());
+                }));
+            }
+            ready.countDown();
+        }
+
+        int accepted = 0;
+        for (Future<BookingDto> result : results) {
+            try {
+                result.get();
+                accepted++;
+            } catch (Exception e) {
+                assertInstanceOf(ConflictException.class, e.getCause());
+            }
+        }
+        assertEquals(1, accepted);
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void reserve_shouldKeepBoundedNumberOfSchedulesAndReloadEvictedOnes() {
+        BookingAvailability availability = new BookingAvailability(bookingRepository, transactionTemplate,
+                2, Duration.ofMinutes(10));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Item> items = new ArrayList<>(List.of(item));
+        for (int i = 1; i < 5; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .name("Дрель " + i)
+                    .description("Ударная дрель")
+                    .available(true)
+                    .owner(item.getOwner())
+                    .build()));
+        }
+
+        items.forEach(i -> availability.reserve(newBooking(i, start)));
+
+        assertTrue(availability.cachedSchedules() <= 2);
+        assertThrows(ConflictException.class, () -> availability.reserve(newBooking(item, start.plusHours(1))));
+    }
+
+    @Test
+    void reserveAll_shouldDetectOverlapWithEarlierChunk() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Booking> batch = new ArrayList<>();
+        for (int i = 0; i < Batches.CHUNK_SIZE; i++) {
+            batch.add(newBooking(item, start.plusDays(2L * i)));
+        }
+        batch.add(newBooking(item, start.plusHours(1)));
+
+        List<BookingAvailability.Reservation> reservations = bookingAvailability.reserveAll(batch);
+
+        assertNull(reservations.getFirst().error());
+        assertInstanceOf(ConflictException.class, reservations.getLast().error());
+        assertEquals(Batches.CHUNK_SIZE, bookingRepository.count());
+    }
+
+    @Test
+    void reserveAll_shouldReportDatabaseErrorPerChunkWithoutDetails() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        User missingBooker = User.builder().id(booker.getId() + 1000).build();
+        List<Booking> batch = new ArrayList<>();
+        for (int i = 0; i < Batches.CHUNK_SIZE; i++) {
+            Booking booking = newBooking(item, start.plusDays(2L * i));
+            booking.setBooker(missingBooker);
+            batch.add(booking);
+        }
+        batch.add(newBooking(item, start.plusDays(2L * Batches.CHUNK_SIZE)));
+
+        List<BookingAvailability.Reservation> reservations = bookingAvailability.reserveAll(batch);
+
+        assertInstanceOf(DataAccessException.class, reservations.getFirst().error());
+        assertNull(reservations.getLast().error());
+        assertEquals(1, bookingRepository.count());
+        BatchResultDto<?> failed = BatchResultDto.failed(0, reservations.getFirst().error());
+        assertEquals(500, failed.getStatus());
+        assertEquals("Internal server error", failed.getError());
+    }
+
+    private Booking newBooking(Item bookedItem, LocalDateTime start) {
+        return Booking.builder()
+                .item(bookedItem)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.server.booking.summary;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class BookingSummariesTest {
+
+    @Autowired
+    private BookingSummaries bookingSummaries;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email("summary-owner@test.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("summary-booker@test.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void approveBooking_shouldStoreNextBookingInSummary() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDto created = bookingService.createBooking(BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build(), booker.getId());
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+
+        bookingService.approveBooking(created.getId(), owner.getId(), true);
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBookingId());
+        assertEquals(created.getId(), summary.getNextBookingId());
+        assertEquals(booker.getId(), summary.getNextBookerId());
+        assertEquals(start, summary.getValidUntil());
+    }
+
+    @Test
+    void rollForward_shouldMoveBookingsToLastWhenTheyEnd() {
+        LocalDateTime t0 = LocalDateTime.now().withNano(0);
+        Booking first = approved(t0.plusHours(1), t0.plusHours(2));
+        Booking second = approved(t0.plusHours(3), t0.plusHours(4));
+        bookingSummaries.refresh(List.of(item.getId()), t0);
+        assertEquals(first.getId(), summaryRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+
+        // первое бронирование началось: ближайшим становится второе, сводка живёт до конца первого
+        assertEquals(1, bookingSummaries.rollForward(t0.plusMinutes(90)));
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBookingId());
+        assertEquals(second.getId(), summary.getNextBookingId());
+        assertEquals(first.getEnd(), summary.getValidUntil());
+
+        assertEquals(0, bookingSummaries.rollForward(t0.plusMinutes(100)));
+
+        bookingSummaries.rollForward(t0.plusMinutes(150));
+        summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(first.getId(), summary.getLastBookingId());
+        assertEquals(second.getId(), summary.getNextBookingId());
+        assertEquals(second.getStart(), summary.getValidUntil());
+    }
+
+    @Test
+    void findByOwnerId_shouldComputeMissingAndExpiredSummaries() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking last = approved(now.minusDays(2), now.minusDays(1));
+        bookingRepository.save(Booking.builder()
+                .item(item).booker(booker).status(BookingStatus.WAITING)
+                .start(now.plusDays(1)).end(now.plusDays(2))
+                .build());
+
+        List<ItemWithBookingSummary> rows = bookingSummaries.findByOwnerId(owner.getId(), now);
+
+        assertEquals(1, rows.size());
+        assertEquals(last.getId(), rows.getFirst().summary().getLastBookingId());
+        assertNull(rows.getFirst().summary().getNextBookingId());
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void onBookerDeleted_shouldExpireSummariesReferencingBooker() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        approved(now.plusDays(1), now.plusDays(2));
+        bookingSummaries.refresh(List.of(item.getId()), now);
+        entityManager.flush();
+
+        bookingSummaries.onBookerDeleted(booker.getId());
+        entityManager.clear();
+
+        assertTrue(summaryRepository.findById(item.getId()).orElseThrow().isExpired(LocalDateTime.now()));
+    }
+
+    private Booking approved(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .item(item).booker(booker).status(BookingStatus.APPROVED)
+                .start(start).end(end)
+                .build());
+    }
+}
@@ -0,0 +1,252 @@
+package ru.practicum.shareit.server.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.booking.BookingRepository;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.item.CommentRepository;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.model.User;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheTest {
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("Owner Name")
+                .email("cache-owner@test.com")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        cacheManager.getCache(EntityCache.USERS).clear();
+        cacheManager.getCache(EntityCache.ITEMS).clear();
+        cacheManager.getCache(EntityCache.COMMENT_ELIGIBILITY).clear();
+    }
+
+    @Test
+    void findUser_shouldHitDatabaseOnlyOnce() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        double hitsBefore = cacheGets(EntityCache.USERS, "hit");
+        statistics.clear();
+
+        assertEquals("Owner Name", entityCache.findUser(owner.getId()).orElseThrow().getName());
+        assertEquals("Owner Name", entityCache.findUser(owner.getId()).orElseThrow().getName());
+        assertEquals("Owner Name", userService.getUserById(owner.getId()).getName());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, cacheGets(EntityCache.USERS, "hit") - hitsBefore);
+    }
+
+    @Test
+    void findUser_shouldReturnNewInstanceOnEveryHit() {
+        User first = entityCache.findUser(owner.getId()).orElseThrow();
+        first.setName("Изменено вызывающим кодом");
+
+        assertEquals("Owner Name", entityCache.findUser(owner.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void findUser_shouldNotCacheMissingUser() {
+        Long id = owner.getId() + 1000;
+
+        assertTrue(entityCache.findUser(id).isEmpty());
+        assertNull(cacheManager.getCache(EntityCache.USERS).get(id));
+    }
+
+    @Test
+    void updateUser_shouldInvalidateCachedUser() {
+        entityCache.findUser(owner.getId());
+
+        userService.updateUser(owner.getId(), UserDto.builder().name("New Name").build());
+
+        assertEquals("New Name", entityCache.findUser(owner.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void findUser_shouldNotCacheSnapshotReadBeforeConcurrentUpdate() {
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        writer.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals("Owner Name", entityCache.findUser(owner.getId()).orElseThrow().getName());
+            // Обновление фиксируется, пока читающая транзакция ещё открыта и не положила снимок в кэш
+            writer.executeWithoutResult(s ->
+                    userService.updateUser(owner.getId(), UserDto.builder().name("New Name").build()));
+        });
+
+        assertNull(cacheManager.getCache(EntityCache.USERS).get(owner.getId()));
+        assertEquals("New Name", entityCache.findUser(owner.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void findItem_shouldNotCacheSnapshotReadBeforeConcurrentUpdate() {
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        writer.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(entityCache.findItems(List.of(item.getId())).get(item.getId()).getAvailable());
+            writer.executeWithoutResult(s -> itemService.updateItem(item.getId(),
+                    ItemDto.builder().available(false).build(), owner.getId()));
+        });
+
+        assertNull(cacheManager.getCache(EntityCache.ITEMS).get(item.getId()));
+        assertFalse(entityCache.findItem(item.getId()).orElseThrow().getAvailable());
+    }
+
+    @Test
+    void updateItem_shouldInvalidateCachedItem() {
+        assertTrue(entityCache.findItem(item.getId()).orElseThrow().getAvailable());
+
+        itemService.updateItem(item.getId(), ItemDto.builder().available(false).build(), owner.getId());
+
+        Item cached = entityCache.findItem(item.getId()).orElseThrow();
+        assertFalse(cached.getAvailable());
+        assertEquals(owner.getId(), cached.getOwner().getId());
+    }
+
+    @Test
+    void deleteUser_shouldInvalidateUserAndItems() {
+        entityCache.findUser(owner.getId());
+        entityCache.findItem(item.getId());
+        itemRepository.deleteById(item.getId());
+
+        userService.deleteUser(owner.getId());
+
+        assertTrue(entityCache.findUser(owner.getId()).isEmpty());
+        assertTrue(entityCache.findItem(item.getId()).isEmpty());
+    }
+
+    @Test
+    void addComment_shouldCheckEligibilityInDatabaseOnlyOnce() {
+        User booker = userRepository.save(User.builder()
+                .name("Booker Name")
+                .email("cache-booker@test.com")
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(3))
+                .end(LocalDateTime.now().minusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        itemService.addComment(item.getId(), booker.getId(), CommentDto.builder().text("Отлично").build());
+        statistics.clear();
+
+        assertTrue(entityCache.findFirstApprovedBookingEnd(booker.getId(), item.getId()).isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void approveBooking_shouldInvalidateCommentEligibility() {
+        User booker = userRepository.save(User.builder()
+                .name("Booker Name")
+                .email("cache-booker@test.com")
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().withNano(0).minusDays(3))
+                .end(LocalDateTime.now().withNano(0).minusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+        assertTrue(entityCache.findFirstApprovedBookingEnd(booker.getId(), item.getId()).isEmpty());
+
+        transactionTemplate.executeWithoutResult(status ->
+                bookingService.approveBooking(booking.getId(), owner.getId(), true));
+
+        assertEquals(booking.getEnd(),
+                entityCache.findFirstApprovedBookingEnd(booker.getId(), item.getId()).orElseThrow());
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", cache)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
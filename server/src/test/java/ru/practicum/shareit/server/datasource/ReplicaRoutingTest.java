@@ -0,0 +1,151 @@
+package ru.practicum.shareit.server.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.server.cache.EntityCache;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Основная база и две реплики — отдельные базы H2 в памяти. В таблице users каждой реплики лежит
+ * своя строка, поэтому по ответу видно, какая база обслужила чтение.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_0 + "," + ReplicaRoutingTest.REPLICA_1,
+        "shareit.datasource.replicas.lag-query=SELECT lag_seconds FROM replica_status",
+        "shareit.datasource.replicas.max-lag=PT5S",
+        "shareit.datasource.replicas.check-interval=PT1H"})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+    static final String REPLICA_0 = "jdbc:h2:mem:replica0;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_1 = "jdbc:h2:mem:replica1;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DatabaseNodes nodes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final List<JdbcTemplate> replicas = List.of(replica(REPLICA_0), replica(REPLICA_1));
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < replicas.size(); i++) {
+            JdbcTemplate replica = replicas.get(i);
+            replica.execute("DROP TABLE IF EXISTS replica_status");
+            replica.execute("CREATE TABLE replica_status (lag_seconds DOUBLE PRECISION)");
+            replica.update("INSERT INTO replica_status VALUES (0)");
+            replica.execute("DROP TABLE IF EXISTS users");
+            replica.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(512))");
+            replica.update("INSERT INTO users VALUES (?, ?, ?)", i + 1, "Реплика " + i, "replica" + i + "@test.com");
+        }
+        nodes.check();
+        userService.createUser(UserDto.builder().name("Основная").email("primary@test.com").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        cacheManager.getCache(EntityCache.USERS).clear();
+    }
+
+    @Test
+    void readOnlyTransactions_shouldAlternateReplicas() {
+        double primaryWrites = routed("primary", "write");
+        double replica0Reads = routed("replica-0", "read");
+        double replica1Reads = routed("replica-1", "read");
+
+        Set<String> readers = Set.of(readerName(), readerName());
+
+        assertEquals(Set.of("Реплика 0", "Реплика 1"), readers);
+        assertEquals(replica0Reads + 1, routed("replica-0", "read"));
+        assertEquals(replica1Reads + 1, routed("replica-1", "read"));
+        assertEquals(primaryWrites, routed("primary", "write"));
+    }
+
+    @Test
+    void laggingReplica_shouldBeSkipped() {
+        replicas.get(1).update("UPDATE replica_status SET lag_seconds = 60");
+        nodes.check();
+
+        assertEquals("Реплика 0", readerName());
+        assertEquals("Реплика 0", readerName());
+        assertEquals(0, meterRegistry.get("shareit.datasource.replica.available")
+                .tag("replica", "replica-1").gauge().value());
+        assertEquals(60, meterRegistry.get("shareit.datasource.replica.lag")
+                .tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    void unavailableReplicas_shouldFallBackToPrimary() {
+        replicas.get(0).execute("DROP TABLE replica_status");
+        replicas.get(1).update("UPDATE replica_status SET lag_seconds = 60");
+        nodes.check();
+        double fallbacks = routed("primary", "fallback");
+
+        assertEquals("Основная", readerName());
+        assertEquals(fallbacks + 1, routed("primary", "fallback"));
+    }
+
+    @Test
+    void replicaReads_shouldNotPopulateEntityCache() {
+        replicas.get(1).update("UPDATE replica_status SET lag_seconds = 60");
+        nodes.check();
+
+        assertEquals("Реплика 0", userService.getUserById(1L).getName());
+        assertNull(cacheManager.getCache(EntityCache.USERS).get(1L));
+    }
+
+    @Test
+    void primaryFallbackReads_shouldPopulateEntityCache() {
+        replicas.get(0).execute("DROP TABLE replica_status");
+        replicas.get(1).execute("DROP TABLE replica_status");
+        nodes.check();
+        Long id = userRepository.findByEmail("primary@test.com").orElseThrow().getId();
+
+        assertEquals("Основная", userService.getUserById(id).getName());
+        assertNotNull(cacheManager.getCache(EntityCache.USERS).get(id));
+    }
+
+    private String readerName() {
+        List<UserDto> users = userService.getAllUsers();
+        assertEquals(1, users.size());
+        return users.getFirst().getName();
+    }
+
+    private double routed(String target, String route) {
+        var counter = meterRegistry.find("shareit.datasource.routing")
+                .tags("target", target, "route", route)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static JdbcTemplate replica(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.batch.BatchResultDto;
+import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.dto.CommentDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemForOwnerDto;
@@ -69,6 +71,32 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(true)));
     }
 
+    @Test
+    void createItems_shouldReturnResultPerRecord() throws Exception {
+        List<ItemDto> batch = List.of(
+                ItemDto.builder().name("Дрель").available(true).build(),
+                ItemDto.builder().name("").available(true).build());
+        ItemDto created = ItemDto.builder().id(1L).name("Дрель").available(true).build();
+
+        when(itemService.createItems(any(), eq(1L)))
+                .thenReturn(List.of(
+                        BatchResultDto.created(0, created),
+                        BatchResultDto.failed(1, new ValidationException("Название вещи не может быть пустым"))));
+
+        mockMvc.perform(post("/items/batch")
+                        .header(USER_ID_HEADER, 1L)
+                        .content(objectMapper.writeValueAsString(batch))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].result.id", is(1)))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].error", is("Название вещи не может быть пустым")));
+    }
+
     @Test
     void updateItem_shouldReturnUpdatedItem() throws Exception {
         ItemDto updateDto = ItemDto.builder()
@@ -118,6 +146,47 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.name", is("Дрель")));
     }
 
+    @Test
+    void getItemById_shouldReturnNotModifiedWhileItemIsUnchanged() throws Exception {
+        ItemWithBookingsDto item = ItemWithBookingsDto.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Описание")
+                .available(true)
+                .comments(List.of())
+                .build();
+
+        when(itemService.getItemById(eq(1L), eq(1L)))
+                .thenReturn(item);
+
+        String etag = mockMvc.perform(get("/items/1")
+                        .header(USER_ID_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", containsString(USER_ID_HEADER)))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/items/1")
+                        .header(USER_ID_HEADER, 1L)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        item.setComments(List.of(CommentDto.builder()
+                .id(1L)
+                .text("Отличная дрель")
+                .authorName("Booker")
+                .build()));
+
+        mockMvc.perform(get("/items/1")
+                        .header(USER_ID_HEADER, 1L)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.comments[0].text", is("Отличная дрель")));
+    }
+
     @Test
     void getItemsByOwner_shouldReturnItemsList() throws Exception {
         ItemForOwnerDto item1 = ItemForOwnerDto.builder()
@@ -154,7 +223,7 @@ class ItemControllerTest {
                 .available(true)
                 .build();
 
-        when(itemService.searchItems(eq("дрель"), eq(1L)))
+        when(itemService.searchItems(eq("дрель"), eq(1L), eq(0), eq(10)))
                 .thenReturn(List.of(item1));
 
         mockMvc.perform(get("/items/search")
@@ -1,20 +1,26 @@
 package ru.practicum.shareit.server.item;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.batch.BatchResultDto;
 import ru.practicum.shareit.server.booking.BookingRepository;
 import ru.practicum.shareit.server.booking.model.Booking;
 import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.summary.BookingSummaries;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.dto.CommentDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.dto.ItemForOwnerDto;
 import ru.practicum.shareit.server.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.service.ItemServiceImpl;
 import ru.practicum.shareit.server.request.ItemRequestRepository;
@@ -24,6 +30,7 @@ import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,6 +54,15 @@ class ItemServiceTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private BookingSummaries bookingSummaries;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private User owner;
     private User booker;
     private ItemRequest request;
@@ -111,6 +127,33 @@ class ItemServiceTest {
         assertEquals(request.getId(), createdItem.getRequestId());
     }
 
+    @Test
+    void createItems_shouldReportResultPerRecord() {
+        List<ItemDto> batch = List.of(
+                ItemDto.builder().name("Пила").description("Циркулярная").available(true).build(),
+                ItemDto.builder().name(" ").description("Без названия").available(true).build(),
+                ItemDto.builder().name("Лестница").description("По запросу").available(true)
+                        .requestId(request.getId()).build(),
+                ItemDto.builder().name("Молоток").description("Несуществующий запрос").available(true)
+                        .requestId(request.getId() + 1000).build());
+
+        List<BatchResultDto<ItemDto>> results = itemService.createItems(batch, owner.getId());
+
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BatchResultDto::getIndex).toList());
+        assertEquals(List.of(201, 400, 201, 404), results.stream().map(BatchResultDto::getStatus).toList());
+        assertEquals("Пила", results.get(0).getResult().getName());
+        assertEquals(request.getId(), results.get(2).getResult().getRequestId());
+        assertEquals("Название вещи не может быть пустым", results.get(1).getError());
+        assertEquals(3, itemRepository.findByOwnerId(owner.getId()).size());
+    }
+
+    @Test
+    void createItems_shouldFailWholeBatchWhenOwnerNotFound() {
+        List<ItemDto> batch = List.of(ItemDto.builder().name("Пила").available(true).build());
+
+        assertThrows(NotFoundException.class, () -> itemService.createItems(batch, 999L));
+    }
+
     @Test
     void createItem_shouldThrowExceptionWhenOwnerNotFound() {
         ItemDto itemDto = ItemDto.builder()
@@ -136,6 +179,77 @@ class ItemServiceTest {
         assertTrue(result.getAvailable());
     }
 
+    @Test
+    void getItemById_shouldReadApprovedLastAndNextBookingsFromSummary() {
+        Item otherItem = itemRepository.save(Item.builder()
+                .name("Пила")
+                .description("Циркулярная пила")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 20; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(now.minusDays(i + 1)).end(now.minusDays(i))
+                    .item(otherItem).booker(booker).status(BookingStatus.APPROVED).build());
+            bookingRepository.save(Booking.builder()
+                    .start(now.plusDays(i)).end(now.plusDays(i + 1))
+                    .item(otherItem).booker(booker).status(BookingStatus.APPROVED).build());
+        }
+        Booking last = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(4)).end(now.minusDays(3))
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder()
+                .start(now.minusDays(8)).end(now.minusDays(7))
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder()
+                .start(now.plusDays(1)).end(now.plusDays(2))
+                .item(item).booker(booker).status(BookingStatus.WAITING).build());
+        Booking next = bookingRepository.save(Booking.builder()
+                .start(now.plusDays(2)).end(now.plusDays(3))
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingSummaries.refresh(List.of(item.getId(), otherItem.getId()), now);
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        ItemWithBookingsDto result = itemService.getItemById(item.getId(), owner.getId());
+
+        assertEquals(last.getId(), result.getLastBooking().getId());
+        assertEquals(next.getId(), result.getNextBooking().getId());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void saveAll_shouldInsertItemsInJdbcBatches() {
+        List<Item> items = IntStream.range(0, 120)
+                .mapToObj(i -> Item.builder()
+                        .name("Вещь " + i)
+                        .description("Описание " + i)
+                        .available(true)
+                        .owner(owner)
+                        .build())
+                .toList();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        itemRepository.saveAll(items);
+        entityManager.flush();
+
+        // 3 пакета вставок по batch_size=50 и не больше 3 обращений к последовательности
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "Выполнено запросов: " + statistics.getPrepareStatementCount());
+        assertEquals(120, items.stream().map(Item::getId).distinct().count());
+    }
+
     @Test
     void getItemById_shouldReturnItemWithoutBookingsForOtherUser() {
         User otherUser = User.builder()
@@ -169,6 +283,58 @@ class ItemServiceTest {
         assertTrue(items.stream().anyMatch(i -> i.getName().equals("Отвертка")));
     }
 
+    @Test
+    void getItemsByOwner_shouldResolveBookingsAndCommentsPerItem() {
+        Item item2 = Item.builder()
+                .name("Отвертка")
+                .description("Набор отверток")
+                .available(true)
+                .owner(owner)
+                .build();
+        item2 = itemRepository.save(item2);
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking oldPast = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(10)).end(now.minusDays(8))
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        Booking lastPast = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(5)).end(now.minusDays(3))
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        Booking nearFuture = bookingRepository.save(Booking.builder()
+                .start(now.plusDays(1)).end(now.plusDays(2))
+                .item(item2).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder()
+                .start(now.plusDays(5)).end(now.plusDays(6))
+                .item(item2).booker(booker).status(BookingStatus.WAITING).build());
+        commentRepository.save(Comment.builder()
+                .text("Отличная дрель")
+                .item(item)
+                .author(booker)
+                .created(now)
+                .build());
+
+        List<ItemForOwnerDto> items = itemService.getItemsByOwner(owner.getId());
+
+        ItemForOwnerDto drill = items.stream()
+                .filter(i -> i.getId().equals(item.getId()))
+                .findFirst()
+                .orElseThrow();
+        ItemForOwnerDto screwdriver = items.stream()
+                .filter(i -> i.getName().equals("Отвертка"))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(lastPast.getId(), drill.getLastBooking().getId());
+        assertNotEquals(oldPast.getId(), drill.getLastBooking().getId());
+        assertNull(drill.getNextBooking());
+        assertEquals(1, drill.getComments().size());
+        assertEquals(booker.getName(), drill.getComments().getFirst().getAuthorName());
+
+        assertNull(screwdriver.getLastBooking());
+        assertEquals(nearFuture.getId(), screwdriver.getNextBooking().getId());
+        assertTrue(screwdriver.getComments().isEmpty());
+    }
+
     @Test
     void searchItems_shouldReturnAvailableItemsMatchingText() {
         itemRepository.deleteAll();
@@ -198,16 +364,48 @@ class ItemServiceTest {
         itemRepository.save(unavailableItem);
         itemRepository.save(otherItem);
 
-        List<ItemDto> results = itemService.searchItems("дрель", owner.getId());
+        List<ItemDto> results = itemService.searchItems("дрель", owner.getId(), 0, 10);
 
         assertEquals(1, results.size());
         assertEquals("Аккумуляторная ДРЕЛЬ Bosch", results.getFirst().getName());
         assertTrue(results.getFirst().getAvailable());
     }
 
+    @Test
+    void searchItems_shouldRankNameMatchesFirstAndPaginate() {
+        itemRepository.deleteAll();
+
+        Item descriptionMatch = itemRepository.save(Item.builder()
+                .name("Набор инструментов")
+                .description("Есть дрель и отвертка")
+                .available(true)
+                .owner(owner)
+                .build());
+        Item containsMatch = itemRepository.save(Item.builder()
+                .name("Ударная дрель")
+                .description("Мощная")
+                .available(true)
+                .owner(owner)
+                .build());
+        Item exactMatch = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Обычная")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        List<ItemDto> firstPage = itemService.searchItems("дрель", owner.getId(), 0, 2);
+        List<ItemDto> secondPage = itemService.searchItems("дрель", owner.getId(), 2, 2);
+
+        assertEquals(List.of(exactMatch.getId(), containsMatch.getId()),
+                firstPage.stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(descriptionMatch.getId()),
+                secondPage.stream().map(ItemDto::getId).toList());
+    }
+
     @Test
     void searchItems_shouldReturnEmptyListForBlankText() {
-        List<ItemDto> results = itemService.searchItems("", owner.getId());
+        List<ItemDto> results = itemService.searchItems("", owner.getId(), 0, 10);
 
         assertTrue(results.isEmpty());
     }
@@ -319,7 +517,7 @@ class ItemServiceTest {
 
     @Test
     void searchItems_shouldReturnEmptyListWhenNoMatches() {
-        List<ItemDto> results = itemService.searchItems("несуществующий текст", owner.getId());
+        List<ItemDto> results = itemService.searchItems("несуществующий текст", owner.getId(), 0, 10);
 
         assertTrue(results.isEmpty());
     }
@@ -345,7 +543,7 @@ class ItemServiceTest {
         itemRepository.save(item1);
         itemRepository.save(item2);
 
-        List<ItemDto> results = itemService.searchItems("Дрель", owner.getId());
+        List<ItemDto> results = itemService.searchItems("Дрель", owner.getId(), 0, 10);
 
         assertEquals(2, results.size());
     }
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.UserRepository;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = "shareit.search.engine=memory")
+@ActiveProfiles("test")
+class NgramItemSearchEngineTest {
+    private static final List<String> WORDS = List.of(
+            "дрель", "Дрель", "ударная", "пила", "Bosch", "Makita", "отвертка", "набор",
+            "лестница", "молоток", "ДРЕЛЬ", "шуруповерт", "аккумулятор", "bosch", "пилка");
+
+    @Autowired
+    private NgramItemSearchEngine ngramEngine;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(User.builder()
+                .name("Owner Name")
+                .email("owner@test.com")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void search_shouldMatchSqlEngineResults() {
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            itemRepository.save(Item.builder()
+                    .name(phrase(random, 1 + random.nextInt(3)))
+                    .description(random.nextInt(5) == 0 ? null : phrase(random, 2 + random.nextInt(4)))
+                    .available(random.nextInt(4) != 0)
+                    .owner(owner)
+                    .build());
+        }
+        ngramEngine.rebuild();
+        SqlItemSearchEngine sqlEngine = new SqlItemSearchEngine(itemRepository);
+
+        List<String> queries = List.of("дрель", "ДРЕЛЬ", "др", "д", "ель у", "bosch", "BOS", "пил",
+                "пилка", "набор отвертка", "нет такого", "ма", "Makita", "а");
+        for (String query : queries) {
+            for (int from : new int[]{0, 5, 40}) {
+                assertEquals(ids(sqlEngine.search(query, from, 20)), ids(ngramEngine.search(query, from, 20)),
+                        "Расхождение для запроса '" + query + "', from=" + from);
+            }
+        }
+    }
+
+    @Test
+    void onItemSaved_shouldUpdateIndexIncrementally() {
+        ngramEngine.rebuild();
+
+        ItemDto created = itemService.createItem(ItemDto.builder()
+                .name("Лазерный дальномер")
+                .description("Точный")
+                .available(true)
+                .build(), owner.getId());
+
+        assertEquals(List.of(created.getId()), ids(itemService.searchItems("дальномер", owner.getId(), 0, 10)));
+
+        itemService.updateItem(created.getId(), ItemDto.builder().available(false).build(), owner.getId());
+
+        assertTrue(itemService.searchItems("дальномер", owner.getId(), 0, 10).isEmpty());
+        assertEquals(0, ngramEngine.indexedItemCount());
+    }
+
+    @Test
+    void onItemSaved_shouldIgnoreRolledBackChanges() {
+        ngramEngine.rebuild();
+        ItemDto created = itemService.createItem(ItemDto.builder()
+                .name("Лазерный дальномер")
+                .description("Точный")
+                .available(true)
+                .build(), owner.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.updateItem(created.getId(), ItemDto.builder().available(false).build(), owner.getId());
+            itemService.createItem(ItemDto.builder()
+                    .name("Нивелир")
+                    .description("Лазерный")
+                    .available(true)
+                    .build(), owner.getId());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(created.getId()), ids(itemService.searchItems("дальномер", owner.getId(), 0, 10)));
+        assertTrue(itemService.searchItems("нивелир", owner.getId(), 0, 10).isEmpty());
+    }
+
+    @Test
+    void onItemSaved_shouldKeepNewerChangeWhenOlderOneCompletesLater() {
+        Item drill = itemRepository.save(Item.builder().name("Дрель").available(true).owner(owner).build());
+        ngramEngine.rebuild();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ngramEngine.onItemSaved(renamed(drill, "Старая дрель"));
+            // Изменение, получившее номер позже, применяется раньше: commit первой транзакции ещё впереди
+            writer().executeWithoutResult(s -> ngramEngine.onItemSaved(renamed(drill, "Новая дрель")));
+        });
+
+        assertEquals(List.of(drill.getId()), ids(ngramEngine.search("новая", 0, 10)));
+        assertTrue(ngramEngine.search("старая", 0, 10).isEmpty());
+    }
+
+    @Test
+    void rebuild_shouldReplayChangesCommittedWhileReadingSnapshot() {
+        Item tent = itemRepository.save(Item.builder().name("Палатка").available(true).owner(owner).build());
+        ItemRepository repository = mock(ItemRepository.class, AdditionalAnswers.delegatesTo(itemRepository));
+        NgramItemSearchEngine engine = new NgramItemSearchEngine(repository, transactionTemplate);
+        doAnswer(invocation -> {
+            List<Item> snapshot = itemRepository.findByAvailableTrue();
+            // Правки фиксируются после чтения снимка, но до замены индекса
+            writer().executeWithoutResult(status -> {
+                Item item = itemRepository.lockById(tent.getId()).orElseThrow();
+                item.setName("Байдарка");
+                engine.onItemSaved(itemRepository.save(item));
+                engine.onItemSaved(itemRepository.save(
+                        Item.builder().name("Весло").available(true).owner(owner).build()));
+            });
+            return snapshot;
+        }).when(repository).findByAvailableTrue();
+
+        engine.rebuild();
+
+        assertEquals(List.of(tent.getId()), ids(engine.search("байдарка", 0, 10)));
+        assertTrue(engine.search("палатка", 0, 10).isEmpty());
+        assertEquals(1, engine.search("весло", 0, 10).size());
+    }
+
+    @Test
+    void onOwnerDeleted_shouldDropOwnerItems() {
+        itemService.createItem(ItemDto.builder()
+                .name("Палатка")
+                .description("Трехместная")
+                .available(true)
+                .build(), owner.getId());
+
+        ngramEngine.onOwnerDeleted(owner.getId());
+
+        assertTrue(ngramEngine.search("палатка", 0, 10).isEmpty());
+    }
+
+    private TransactionTemplate writer() {
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        writer.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return writer;
+    }
+
+    private Item renamed(Item item, String name) {
+        return Item.builder().id(item.getId()).name(name).available(true).owner(owner).build();
+    }
+
+    private static String phrase(Random random, int words) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            phrase.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        return phrase.toString();
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).toList();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.pagination.SeekCursor;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.service.ItemRequestService;
 
@@ -17,6 +18,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -93,6 +95,31 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[1].description", is("Нужен молоток")));
     }
 
+    @Test
+    void getUserRequests_shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        ItemRequestDto request = ItemRequestDto.builder()
+                .id(1L)
+                .description("Нужна дрель")
+                .requestorId(1L)
+                .created(LocalDateTime.now())
+                .items(List.of())
+                .build();
+
+        when(itemRequestService.getUserRequests(eq(1L)))
+                .thenReturn(List.of(request));
+
+        String etag = mockMvc.perform(get("/requests")
+                        .header(USER_ID_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/requests")
+                        .header(USER_ID_HEADER, 1L)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getAllRequests_shouldReturnOtherUsersRequests() throws Exception {
         ItemRequestDto request = ItemRequestDto.builder()
@@ -102,7 +129,7 @@ class ItemRequestControllerTest {
                 .created(LocalDateTime.now())
                 .build();
 
-        when(itemRequestService.getAllRequests(eq(1L), eq(0), eq(10)))
+        when(itemRequestService.getAllRequests(eq(1L), eq(0), eq(10), isNull()))
                 .thenReturn(List.of(request));
 
         mockMvc.perform(get("/requests/all")
@@ -114,7 +141,30 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].description", is("Нужна дрель")))
-                .andExpect(jsonPath("$[0].requestorId", is(2)));
+                .andExpect(jsonPath("$[0].requestorId", is(2)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAllRequests_shouldReturnNextCursorForFullPage() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2026, 1, 10, 12, 0);
+        ItemRequestDto request = ItemRequestDto.builder()
+                .id(7L)
+                .description("Нужна дрель")
+                .requestorId(2L)
+                .created(created)
+                .build();
+
+        when(itemRequestService.getAllRequests(eq(1L), eq(0), eq(1), eq("cursor")))
+                .thenReturn(List.of(request));
+
+        mockMvc.perform(get("/requests/all")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("size", "1")
+                        .param("cursor", "cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new SeekCursor(created, 7L).encode()));
     }
 
     @Test
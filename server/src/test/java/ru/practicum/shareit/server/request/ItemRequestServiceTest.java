@@ -1,15 +1,21 @@
 package ru.practicum.shareit.server.request;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.ItemRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.pagination.SeekCursor;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.request.service.ItemRequestServiceImpl;
@@ -17,6 +23,7 @@ import ru.practicum.shareit.server.user.UserRepository;
 import ru.practicum.shareit.server.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +45,9 @@ class ItemRequestServiceTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User requester;
     private User otherUser;
     private User itemOwner;
@@ -145,12 +155,22 @@ class ItemRequestServiceTest {
 
         itemRequestRepository.save(request);
 
-        List<ItemRequestDto> requests = itemRequestService.getAllRequests(requester.getId(), 0, 10);
+        List<ItemRequestDto> requests = itemRequestService.getAllRequests(requester.getId(), 0, 10, null);
 
         assertEquals(1, requests.size());
         assertEquals(otherUser.getId(), requests.get(0).getRequestorId());
     }
 
+    @Test
+    void save_shouldRejectRequestWithoutCreatedDate() {
+        ItemRequest request = ItemRequest.builder()
+                .description("Request without date")
+                .requestor(otherUser)
+                .build();
+
+        assertThrows(DataIntegrityViolationException.class, () -> itemRequestRepository.saveAndFlush(request));
+    }
+
     @Test
     void getAllRequests_shouldNotReturnCurrentUserRequests() {
         ItemRequest userRequest = ItemRequest.builder()
@@ -161,7 +181,7 @@ class ItemRequestServiceTest {
 
         itemRequestRepository.save(userRequest);
 
-        List<ItemRequestDto> requests = itemRequestService.getAllRequests(requester.getId(), 0, 10);
+        List<ItemRequestDto> requests = itemRequestService.getAllRequests(requester.getId(), 0, 10, null);
 
         assertTrue(requests.isEmpty());
     }
@@ -177,30 +197,135 @@ class ItemRequestServiceTest {
             itemRequestRepository.save(request);
         }
 
-        List<ItemRequestDto> page1 = itemRequestService.getAllRequests(requester.getId(), 0, 5);
-        List<ItemRequestDto> page2 = itemRequestService.getAllRequests(requester.getId(), 5, 5);
-        List<ItemRequestDto> page3 = itemRequestService.getAllRequests(requester.getId(), 10, 5);
+        List<ItemRequestDto> page1 = itemRequestService.getAllRequests(requester.getId(), 0, 5, null);
+        List<ItemRequestDto> page2 = itemRequestService.getAllRequests(requester.getId(), 5, 5, null);
+        List<ItemRequestDto> page3 = itemRequestService.getAllRequests(requester.getId(), 10, 5, null);
 
         assertEquals(5, page1.size());
         assertEquals(5, page2.size());
         assertEquals(5, page3.size());
     }
 
+    @Test
+    void getAllRequests_shouldContinueFromCursorWhenFeedGrows() {
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < 5; i++) {
+            itemRequestRepository.save(ItemRequest.builder()
+                    .description("Request " + i)
+                    .requestor(otherUser)
+                    .created(i < 3 ? created : created.minusHours(i))
+                    .build());
+        }
+
+        List<ItemRequestDto> firstPage = itemRequestService.getAllRequests(requester.getId(), 0, 2, null);
+        ItemRequestDto last = firstPage.getLast();
+        String cursor = new SeekCursor(last.getCreated(), last.getId()).encode();
+
+        itemRequestRepository.save(ItemRequest.builder()
+                .description("Newer request")
+                .requestor(otherUser)
+                .created(created.plusMinutes(1))
+                .build());
+
+        List<ItemRequestDto> secondPage = itemRequestService.getAllRequests(requester.getId(), 0, 3, cursor);
+
+        assertEquals(List.of("Request 2", "Request 1"),
+                firstPage.stream().map(ItemRequestDto::getDescription).toList());
+        assertEquals(List.of("Request 0", "Request 3", "Request 4"),
+                secondPage.stream().map(ItemRequestDto::getDescription).toList());
+    }
+
     @Test
     void getAllRequests_shouldThrowForInvalidPagination() {
         Long requesterId = requester.getId();
 
         assertThrows(ValidationException.class, () -> {
-            itemRequestService.getAllRequests(requesterId, -1, 10);
+            itemRequestService.getAllRequests(requesterId, -1, 10, null);
         });
 
         assertThrows(ValidationException.class, () -> {
-            itemRequestService.getAllRequests(requesterId, 0, 0);
+            itemRequestService.getAllRequests(requesterId, 0, 0, null);
         });
 
         assertThrows(ValidationException.class, () -> {
-            itemRequestService.getAllRequests(requesterId, 0, -5);
+            itemRequestService.getAllRequests(requesterId, 0, -5, null);
         });
+
+        assertThrows(ValidationException.class, () -> {
+            itemRequestService.getAllRequests(requesterId, 0, 10, "not-a-cursor");
+        });
+    }
+
+    @Test
+    void getAllRequests_shouldLoadItemsForWholePageInOneQuery() {
+        List<ItemRequest> saved = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("Request " + i)
+                    .requestor(otherUser)
+                    .created(LocalDateTime.now().minusHours(i))
+                    .build());
+            saved.add(request);
+            for (int j = 0; j < i % 3; j++) {
+                itemRepository.save(Item.builder()
+                        .name("Item " + i + "." + j)
+                        .available(true)
+                        .owner(itemOwner)
+                        .request(request)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> requests = itemRequestService.getAllRequests(requester.getId(), 0, 20, null);
+
+        // пользователь, страница запросов и ответы на все запросы страницы
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Выполнено запросов: " + statistics.getPrepareStatementCount());
+        assertEquals(saved.stream().map(ItemRequest::getId).toList(),
+                requests.stream().map(ItemRequestDto::getId).toList());
+        for (int i = 0; i < 20; i++) {
+            List<String> expected = new ArrayList<>();
+            for (int j = 0; j < i % 3; j++) {
+                expected.add("Item " + i + "." + j);
+            }
+            assertEquals(expected, requests.get(i).getItems().stream().map(ItemDto::getName).toList());
+        }
+    }
+
+    @Test
+    void getUserRequests_shouldLoadItemsInOneQuery() {
+        for (int i = 0; i < 10; i++) {
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("Request " + i)
+                    .requestor(requester)
+                    .created(LocalDateTime.now().minusHours(i))
+                    .build());
+            itemRepository.save(Item.builder()
+                    .name("Item " + i)
+                    .available(true)
+                    .owner(itemOwner)
+                    .request(request)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> requests = itemRequestService.getUserRequests(requester.getId());
+
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Выполнено запросов: " + statistics.getPrepareStatementCount());
+        assertEquals(10, requests.size());
+        assertTrue(requests.stream().allMatch(request -> request.getItems().size() == 1));
     }
 
     @Test
@@ -302,7 +427,7 @@ class ItemRequestServiceTest {
             itemRequestRepository.save(request);
         }
 
-        List<ItemRequestDto> requests = itemRequestService.getAllRequests(requester.getId(), 0, 10);
+        List<ItemRequestDto> requests = itemRequestService.getAllRequests(requester.getId(), 0, 10, null);
 
         assertEquals(3, requests.size());
         assertEquals("Request 0", requests.get(0).getDescription());
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.server.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Точное число SQL-запросов, которое должен выполнить тестовый метод. Подготовка данных
+ * в @BeforeEach не считается; её нужно сбросить в базу и очистить контекст персистентности,
+ * иначе ленивые загрузки разрешатся из кэша первого уровня и N+1 останется незамеченным.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementBudgetExtension.class)
+public @interface SqlStatementBudget {
+    int value();
+}
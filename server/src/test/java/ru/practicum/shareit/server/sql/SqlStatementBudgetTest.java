@@ -0,0 +1,164 @@
+package ru.practicum.shareit.server.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.server.booking.model.Booking;
+import ru.practicum.shareit.server.booking.model.BookingStatus;
+import ru.practicum.shareit.server.booking.summary.BookingSummaries;
+import ru.practicum.shareit.server.item.model.Comment;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+import ru.practicum.shareit.server.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Бюджеты SQL-запросов для списковых эндпоинтов. Данных больше одной строки на каждом уровне,
+ * поэтому запрос на строку (N+1) сразу выводит счётчик за бюджет.
+ */
+@SpringBootTest(properties = "shareit.sql.count-header=true")
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+class SqlStatementBudgetTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int ITEMS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingSummaries bookingSummaries;
+
+    private User owner;
+    private User booker;
+    private User requester;
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = persist(User.builder().name("Owner").email("budget-owner@test.com").build());
+        booker = persist(User.builder().name("Booker").email("budget-booker@test.com").build());
+        User critic = persist(User.builder().name("Critic").email("budget-critic@test.com").build());
+        requester = persist(User.builder().name("Requester").email("budget-requester@test.com").build());
+        ItemRequest request = persist(ItemRequest.builder()
+                .description("Нужен инструмент")
+                .requestor(requester)
+                .created(now.minusDays(3))
+                .build());
+        persist(ItemRequest.builder()
+                .description("Нужна палатка")
+                .requestor(booker)
+                .created(now.minusDays(2))
+                .build());
+
+        items.clear();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = persist(Item.builder()
+                    .name("Вещь " + i)
+                    .description("Описание " + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(i % 2 == 0 ? request : null)
+                    .build());
+            items.add(item);
+            persist(Booking.builder().item(item).booker(booker).status(BookingStatus.APPROVED)
+                    .start(now.minusDays(5)).end(now.minusDays(4)).build());
+            persist(Booking.builder().item(item).booker(critic).status(BookingStatus.WAITING)
+                    .start(now.plusDays(1)).end(now.plusDays(2)).build());
+            for (User author : List.of(booker, critic)) {
+                persist(Comment.builder().text("Отзыв").item(item).author(author).created(now.minusDays(1)).build());
+            }
+        }
+        bookingSummaries.refresh(items.stream().map(Item::getId).toList(), now);
+        entityManager.flush();
+        entityManager.clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @SqlStatementBudget(3)
+    void getItemsByOwner_shouldNotQueryPerItem() throws Exception {
+        mockMvc.perform(get("/items").header(USER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ITEMS)))
+                .andExpect(jsonPath("$[*].comments[*].authorName", hasSize(ITEMS * 2)))
+                .andExpect(header().string(SqlStatementCountAdvice.HEADER, "3"));
+
+        assertEquals(3, meterRegistry.get("shareit.sql.statements")
+                .tags("method", "GET", "uri", "/items")
+                .summary()
+                .max());
+    }
+
+    @Test
+    @SqlStatementBudget(3)
+    void getItemById_shouldFetchCommentAuthorsWithComments() throws Exception {
+        mockMvc.perform(get("/items/{itemId}", items.getFirst().getId()).header(USER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[*].authorName", hasSize(2)));
+    }
+
+    @Test
+    @SqlStatementBudget(3)
+    void getUserRequests_shouldLoadAnswersInOneQuery() throws Exception {
+        mockMvc.perform(get("/requests").header(USER_ID_HEADER, requester.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].items", hasSize(ITEMS / 2)));
+    }
+
+    @Test
+    @SqlStatementBudget(3)
+    void getAllRequests_shouldLoadAnswersInOneQuery() throws Exception {
+        mockMvc.perform(get("/requests/all").header(USER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @SqlStatementBudget(2)
+    void getOwnerBookings_shouldFetchItemsAndBookers() throws Exception {
+        mockMvc.perform(get("/bookings/owner").header(USER_ID_HEADER, owner.getId()).param("state", "ALL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ITEMS * 2)));
+    }
+
+    @Test
+    @SqlStatementBudget(2)
+    void getUserBookings_shouldFetchItemsAndBookers() throws Exception {
+        mockMvc.perform(get("/bookings").header(USER_ID_HEADER, booker.getId()).param("state", "ALL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ITEMS)));
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -103,6 +103,26 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name", is("Иван Иванов")));
     }
 
+    @Test
+    void getUserById_shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        when(userService.getUserById(eq(1L)))
+                .thenReturn(UserDto.builder()
+                        .id(1L)
+                        .name("Иван Иванов")
+                        .email("ivan@test.com")
+                        .build());
+
+        String etag = mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/users/1")
+                        .header("If-None-Match", "\"outdated\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getAllUsers_shouldReturnUsersList() throws Exception {
         UserDto user1 = UserDto.builder()
@@ -0,0 +1,36 @@
+INSERT INTO users (id, name, email)
+SELECT g, 'Пользователь ' || g, 'user' || g || '@plan.test'
+FROM generate_series(1, 10000) g;
+
+INSERT INTO requests (id, description, requestor_id, created)
+SELECT g, 'Запрос ' || g, g % 10000 + 1, LOCALTIMESTAMP - g * INTERVAL '1 hour'
+FROM generate_series(1, 5000) g;
+
+INSERT INTO items (id, name, description, is_available, owner_id, request_id)
+SELECT g, 'Вещь ' || g, 'Описание ' || g, g % 4 <> 0, g % 10000 + 1,
+       CASE WHEN g % 10 = 0 THEN g / 10 % 5000 + 1 END
+FROM generate_series(1, 20000) g;
+
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status)
+SELECT g, LOCALTIMESTAMP + (g / 20000 * 30 - 60) * INTERVAL '1 day',
+       LOCALTIMESTAMP + (g / 20000 * 30 - 58) * INTERVAL '1 day',
+       g % 20000 + 1, g * 7 % 10000 + 1,
+       (ARRAY['WAITING', 'APPROVED', 'APPROVED', 'APPROVED', 'APPROVED', 'APPROVED',
+              'REJECTED', 'REJECTED', 'CANCELED', 'APPROVED'])[g % 10 + 1]
+FROM generate_series(1, 100000) g;
+
+INSERT INTO comments (id, text, item_id, author_id, created)
+SELECT g, 'Отзыв ' || g, g % 20000 + 1, g * 3 % 10000 + 1, LOCALTIMESTAMP - g * INTERVAL '1 minute'
+FROM generate_series(1, 20000) g;
+
+INSERT INTO item_booking_summary (item_id, valid_until)
+SELECT g, LOCALTIMESTAMP + g % 30 * INTERVAL '1 day'
+FROM generate_series(1, 20000) g;
+
+SELECT setval('users_seq', (SELECT MAX(id) FROM users));
+SELECT setval('requests_seq', (SELECT MAX(id) FROM requests));
+SELECT setval('items_seq', (SELECT MAX(id) FROM items));
+SELECT setval('bookings_seq', (SELECT MAX(id) FROM bookings));
+SELECT setval('comments_seq', (SELECT MAX(id) FROM comments));
+
+ANALYZE;